@@ -25,8 +25,16 @@ dependencies {
     implementation("org.projectlombok:lombok:1.18.42")
 }
 
+// Floyd-Warshall uses the incubating Vector API when this module is added, and a scalar loop otherwise
+val vectorModule = listOf("--add-modules", "jdk.incubator.vector")
+
 application {
     mainClass = "Main"
+    applicationDefaultJvmArgs = vectorModule
+}
+
+tasks.withType<JavaCompile> {
+    options.compilerArgs.addAll(vectorModule)
 }
 
 tasks.named<JavaExec>("run") {
@@ -35,6 +43,7 @@ tasks.named<JavaExec>("run") {
 
 tasks.test {
     useJUnitPlatform()
+    jvmArgs(vectorModule)
 }
 
 val libsDir = layout.buildDirectory.dir("libs")
@@ -49,6 +58,8 @@ tasks.register<Jar>("queueJar") {
         include("S21_collection/Queue.class")
         include("S21_collection/Collection.class")
         include("S21_collection/Node.class")
+        include("S21_collection/IntQueue.class")
+        include("S21_collection/IntCollection.class")
     }
 
     destinationDirectory.set(libsDir)
@@ -65,6 +76,8 @@ tasks.register<Jar>("stackJar") {
         include("S21_collection/Stack.class")
         include("S21_collection/Collection.class")
         include("S21_collection/Node.class")
+        include("S21_collection/IntStack.class")
+        include("S21_collection/IntCollection.class")
     }
 
     destinationDirectory.set(libsDir)
@@ -0,0 +1,13 @@
+package S21_collection;
+
+/**
+ * Primitive {@code int} sibling of {@link Collection} that stores values without boxing.
+ */
+public interface IntCollection {
+    void push(int value);
+    int pop();
+    int top();
+    boolean isEmpty();
+    int getSize();
+    void clear();
+}
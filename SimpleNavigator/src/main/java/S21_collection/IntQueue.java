@@ -0,0 +1,94 @@
+package S21_collection;
+
+import java.util.NoSuchElementException;
+
+/**
+ * Ring-buffer queue of {@code int} values that grows on demand.
+ */
+public class IntQueue implements IntCollection {
+    private static final int DEFAULT_CAPACITY = 16;
+    private int[] values;
+    private int first;
+    private int size;
+
+    public IntQueue() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public IntQueue(int initialCapacity) {
+        values = new int[Math.max(1, initialCapacity)];
+        first = 0;
+        size = 0;
+    }
+
+    @Override
+    public void push(int value) {
+        if (size == values.length) {
+            grow();
+        }
+        int index = first + size;
+        if (index >= values.length) {
+            index -= values.length;
+        }
+        values[index] = value;
+        size++;
+    }
+
+    @Override
+    public int pop() {
+        int value = top();
+        first++;
+        if (first == values.length) {
+            first = 0;
+        }
+        size--;
+        return value;
+    }
+
+    @Override
+    public int top() {
+        if (isEmpty()) {
+            throw new NoSuchElementException("Queue is empty");
+        }
+        return values[first];
+    }
+
+    public int front() {
+        return top();
+    }
+
+    public int back() {
+        if (isEmpty()) {
+            throw new NoSuchElementException("Queue is empty");
+        }
+        int index = first + size - 1;
+        return values[index >= values.length ? index - values.length : index];
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public int getSize() {
+        return size;
+    }
+
+    @Override
+    public void clear() {
+        first = 0;
+        size = 0;
+    }
+
+    private void grow() {
+        int[] grown = new int[values.length * 2];
+        int head = values.length - first;
+        System.arraycopy(values, first, grown, 0, Math.min(head, size));
+        if (head < size) {
+            System.arraycopy(values, 0, grown, head, size - head);
+        }
+        values = grown;
+        first = 0;
+    }
+}
@@ -0,0 +1,60 @@
+package S21_collection;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * Array-backed stack of {@code int} values that grows on demand.
+ */
+public class IntStack implements IntCollection {
+    private static final int DEFAULT_CAPACITY = 16;
+    private int[] values;
+    private int size;
+
+    public IntStack() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public IntStack(int initialCapacity) {
+        values = new int[Math.max(1, initialCapacity)];
+        size = 0;
+    }
+
+    @Override
+    public void push(int value) {
+        if (size == values.length) {
+            values = Arrays.copyOf(values, size * 2);
+        }
+        values[size++] = value;
+    }
+
+    @Override
+    public int pop() {
+        int value = top();
+        size--;
+        return value;
+    }
+
+    @Override
+    public int top() {
+        if (isEmpty()) {
+            throw new NoSuchElementException("Stack is empty");
+        }
+        return values[size - 1];
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public int getSize() {
+        return size;
+    }
+
+    @Override
+    public void clear() {
+        size = 0;
+    }
+}
@@ -0,0 +1,13 @@
+package algorithms;
+
+/**
+ * Algorithm used by {@link GraphAlgorithmsImpl#getShortestPathsBetweenAllVertices}.
+ */
+public enum AllPairsStrategy {
+    /** Chosen per graph from its vertex count and density; Dijkstra whenever the Floyd–Warshall matrix would crowd the heap */
+    AUTO,
+    /** Blocked parallel Floyd–Warshall, O(V^3) over a V x V {@code int} matrix on the heap; suits dense or small graphs */
+    FLOYD_WARSHALL,
+    /** Heap-based Dijkstra from every source in parallel, O(V E log V); suits large sparse graphs */
+    PARALLEL_DIJKSTRA
+}
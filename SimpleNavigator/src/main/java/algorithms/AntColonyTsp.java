@@ -0,0 +1,174 @@
+package algorithms;
+
+import data.TsmResult;
+import graph.Graph;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Ant colony search for a closed route through every vertex.
+ * <p>
+ * Every iteration sends one ant from each vertex. An ant picks its next vertex at random in proportion
+ * to the desire of the edge, the product of its proximity (the smallest weight over its weight) and its
+ * pheromones; visited vertices are {@value #DESIRE_REDUCTION} times less desirable, except the start once every
+ * vertex is visited. Ants that are not back at the start within twice the vertex count steps are dropped,
+ * and the others lay pheromones inversely proportional to their distance on the edges they took.
+ * <p>
+ * Edge data are kept in row-major {@code double[]} matrices, updated only on the edges that get pheromones,
+ * tours in {@code int[]} buffers reused across iterations, and the visited vertices of an ant in a {@code boolean[]}.
+ */
+final class AntColonyTsp {
+    private static final double INIT_PHEROMONES = 0.2;
+    private static final int ITERATIONS_PER_VERTEX = 100;
+    private static final int MAX_STAGNATION = 1000;
+    private static final int VERTEX_PENALTY = 10;
+    private static final int MIN_STAGNATION = 50;
+    private static final int DESIRE_REDUCTION = 100;
+    private static final Random random = new Random();
+
+    /** Describes the parameters, so a route cached under other parameters is not found */
+    static final String PARAMETERS = "ant-colony " + INIT_PHEROMONES + " " + ITERATIONS_PER_VERTEX + " "
+            + MAX_STAGNATION + " " + VERTEX_PENALTY + " " + MIN_STAGNATION + " " + DESIRE_REDUCTION;
+
+    private final int vertexCount;
+    private final double q;
+    private final int[] weights;
+    private final double[] proximities;
+    private final double[] pheromones;
+    private final double[] desires;
+    /** Tours of the ants of the current iteration that made it back to their start */
+    private final int[][] tours;
+    private final int[] tourLengths;
+    private final int[] distances;
+    private final boolean[] visited;
+    private final double[] choices;
+
+    private AntColonyTsp(Graph graph) {
+        vertexCount = graph.getVertexCount();
+        q = graph.getMinEdgeWeight();
+        weights = new int[vertexCount * vertexCount];
+        proximities = new double[weights.length];
+        pheromones = new double[weights.length];
+        desires = new double[weights.length];
+        for (int vertex = 0; vertex < vertexCount; vertex++) {
+            int row = vertex * vertexCount;
+            graph.forEachEdge(vertex, (target, weight) -> {
+                weights[row + target] = weight;
+                proximities[row + target] = q / weight;
+                pheromones[row + target] = INIT_PHEROMONES;
+                desires[row + target] = proximities[row + target] * INIT_PHEROMONES;
+            });
+        }
+        tours = new int[vertexCount][vertexCount * 2 + 1];
+        tourLengths = new int[vertexCount];
+        distances = new int[vertexCount];
+        visited = new boolean[vertexCount];
+        choices = new double[vertexCount];
+    }
+
+    /**
+     * Returns the shortest route found, or null if no ant ever made it back to its start.
+     */
+    static TsmResult solve(Graph graph) {
+        return new AntColonyTsp(graph).run();
+    }
+
+    private TsmResult run() {
+        int iterationCount = vertexCount * ITERATIONS_PER_VERTEX;
+        int stagnationLimit = Math.max(MAX_STAGNATION - vertexCount * VERTEX_PENALTY, MIN_STAGNATION);
+        int[] bestTour = null;
+        int bestDistance = 0;
+        int lastImprove = 0;
+        for (int iteration = 0; iteration < iterationCount && iteration - lastImprove <= stagnationLimit; iteration++) {
+            int antCount = 0;
+            for (int start = 0; start < vertexCount; start++) {
+                if (walk(start, antCount)) {
+                    antCount++;
+                }
+            }
+            if (antCount == 0) {
+                continue;
+            }
+            layPheromones(antCount);
+            if (bestTour == null) {
+                bestTour = Arrays.copyOf(tours[0], tourLengths[0]);
+                bestDistance = distances[0];
+            }
+            for (int ant = 0; ant < antCount; ant++) {
+                if (distances[ant] < bestDistance) {
+                    bestTour = Arrays.copyOf(tours[ant], tourLengths[ant]);
+                    bestDistance = distances[ant];
+                    lastImprove = iteration;
+                }
+            }
+        }
+        return bestTour == null ? null : new TsmResult(bestTour, bestDistance);
+    }
+
+    /**
+     * Walks one ant from the start and stores its tour in the buffer of the ant.
+     *
+     * @return false if the ant got stuck or did not return in time
+     */
+    private boolean walk(int start, int ant) {
+        int[] tour = tours[ant];
+        Arrays.fill(visited, false);
+        int length = 0;
+        int distance = 0;
+        tour[length++] = start;
+        visited[start] = true;
+        int visitedCount = 1;
+        boolean allVisited = visitedCount == vertexCount;
+        int current = start;
+        while (!allVisited || current != start) {
+            if (length > vertexCount * 2) {
+                return false;
+            }
+            allVisited = visitedCount == vertexCount;
+            int row = current * vertexCount;
+            double desireSum = 0;
+            for (int vertex = 0; vertex < vertexCount; vertex++) {
+                if (vertex == current) {
+                    choices[vertex] = 0;
+                    continue;
+                }
+                double desire = desires[row + vertex];
+                choices[vertex] = !visited[vertex] || (allVisited && vertex == start) ? desire : desire / DESIRE_REDUCTION;
+                desireSum += choices[vertex];
+            }
+            if (desireSum == 0) {
+                return false;
+            }
+            double choice = random.nextDouble();
+            for (int vertex = 0; vertex < vertexCount; vertex++) {
+                choice -= choices[vertex] / desireSum;
+                if (choice < 0) {
+                    tour[length++] = vertex;
+                    distance += weights[row + vertex];
+                    if (!visited[vertex]) {
+                        visited[vertex] = true;
+                        visitedCount++;
+                    }
+                    current = vertex;
+                    break;
+                }
+            }
+        }
+        tourLengths[ant] = length;
+        distances[ant] = distance;
+        return true;
+    }
+
+    private void layPheromones(int antCount) {
+        for (int ant = 0; ant < antCount; ant++) {
+            int[] tour = tours[ant];
+            double amount = q / distances[ant];
+            for (int i = 0; i < tourLengths[ant] - 1; i++) {
+                int edge = tour[i] * vertexCount + tour[i + 1];
+                pheromones[edge] += amount;
+                desires[edge] = proximities[edge] * pheromones[edge];
+            }
+        }
+    }
+}
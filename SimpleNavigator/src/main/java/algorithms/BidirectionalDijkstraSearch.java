@@ -0,0 +1,84 @@
+package algorithms;
+
+import graph.Graph;
+
+/**
+ * Dijkstra's algorithm run from both ends at once until the two searches meet.
+ * <p>
+ * The forward search follows outgoing edges from the source, the backward one follows the edges
+ * of the transposed graph from the target, which is built once and cached by {@link Graph#getTransposedGraph()}.
+ * The side with the smaller queue head is expanded next, and the search stops once the heads of both
+ * queues add up to at least the best path seen, so each side settles roughly the vertices
+ * within half of the distance.
+ */
+final class BidirectionalDijkstraSearch implements PointToPointSearch {
+    static final BidirectionalDijkstraSearch INSTANCE = new BidirectionalDijkstraSearch();
+
+    private BidirectionalDijkstraSearch() {
+    }
+
+    @Override
+    public int distance(QueryWorkspace forward, int source, int target) {
+        QueryWorkspace backward = QueryWorkspace.backwardForCurrentThread(forward.graph().getTransposedGraph());
+        IndexedDaryHeap forwardHeap = forward.heap();
+        IndexedDaryHeap backwardHeap = backward.heap();
+        forward.reach(source, 0, source);
+        forwardHeap.insertOrDecrease(source, 0);
+        backward.reach(target, 0, target);
+        backwardHeap.insertOrDecrease(target, 0);
+
+        long best = UNREACHABLE;
+        int meetingVertex = -1;
+        while (!forwardHeap.isEmpty() && !backwardHeap.isEmpty()) {
+            int forwardMin = forwardHeap.minKey();
+            int backwardMin = backwardHeap.minKey();
+            if ((long) forwardMin + backwardMin >= best) {
+                break;
+            }
+            boolean expandForward = forwardMin <= backwardMin;
+            QueryWorkspace side = expandForward ? forward : backward;
+            QueryWorkspace other = expandForward ? backward : forward;
+            int vertex = side.heap().pollMin();
+            side.settle(vertex);
+
+            int distance = side.distance(vertex);
+            side.neighbors().reset(vertex);
+            while (side.neighbors().next()) {
+                int child = side.neighbors().target();
+                int weight = side.neighbors().weight();
+                if (weight <= 0 || side.isSettled(child)) {
+                    continue;
+                }
+                long candidate = (long) distance + weight;
+                if (candidate < side.distance(child)) {
+                    side.reach(child, (int) candidate, vertex);
+                    side.heap().insertOrDecrease(child, (int) candidate);
+                }
+                int remaining = other.distance(child);
+                if (remaining != UNREACHABLE && candidate + remaining < best) {
+                    best = candidate + remaining;
+                    meetingVertex = child;
+                }
+            }
+        }
+        forward.meetAt(meetingVertex);
+        return (int) best;
+    }
+
+    /**
+     * Joins the forward route to the meeting vertex with the backward route from it to the target.
+     */
+    @Override
+    public int[] route(QueryWorkspace forward, int source, int target) {
+        QueryWorkspace backward = QueryWorkspace.backwardForCurrentThread();
+        int meetingVertex = forward.meetingVertex();
+        int[] head = forward.route(source, meetingVertex);
+        int[] tail = backward.route(target, meetingVertex);
+        int[] route = new int[head.length + tail.length - 1];
+        System.arraycopy(head, 0, route, 0, head.length);
+        for (int i = 1; i < tail.length; i++) {
+            route[head.length + i - 1] = tail[tail.length - 1 - i];
+        }
+        return route;
+    }
+}
@@ -0,0 +1,60 @@
+package algorithms;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Little-endian reading and writing of the binary files that hold preprocessed graph data.
+ */
+final class BinaryFiles {
+    private BinaryFiles() {}
+
+    static FileChannel openForWriting(String filename) throws IOException {
+        return FileChannel.open(Path.of(filename), StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+    }
+
+    static FileChannel openForReading(String filename) throws IOException {
+        return FileChannel.open(Path.of(filename), StandardOpenOption.READ);
+    }
+
+    /**
+     * Reads {@code count} ints starting at the byte position.
+     */
+    static int[] readInts(FileChannel channel, long position, int count) throws IOException {
+        int[] values = new int[count];
+        readFully(channel, position, Integer.BYTES * count).asIntBuffer().get(values);
+        return values;
+    }
+
+    /**
+     * Reads {@code size} bytes starting at the byte position into a flipped little-endian buffer.
+     *
+     * @throws IllegalArgumentException if the file ends before the requested bytes
+     */
+    static ByteBuffer readFully(FileChannel channel, long position, int size) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(size).order(ByteOrder.LITTLE_ENDIAN);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IllegalArgumentException("File is truncated");
+            }
+        }
+        return buffer.flip();
+    }
+
+    static void writeInts(FileChannel channel, int[] values) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(Integer.BYTES * values.length).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.asIntBuffer().put(values);
+        writeFully(channel, buffer);
+    }
+
+    static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package algorithms;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * Dial's bucket queue of vertices keyed by {@code int} priorities, for keys that never exceed the smallest
+ * queued key by more than a fixed span, as in a shortest path search with edge weights of at most the span.
+ * <p>
+ * Vertices with equal keys are chained in one of {@code span + 1} buckets that form a ring, as doubly linked
+ * lists kept in primitive arrays. Insertion, decrease-key and removal take constant time, and finding
+ * the minimum moves a cursor forward, so a whole search passes each key once.
+ */
+final class BucketQueue {
+    /** Largest span accepted by {@link #reset}; the ring of a wider span would cost more than a heap saves */
+    static final int MAX_SPAN = 1 << 16;
+    private static final int ABSENT = -1;
+
+    private final int[] keys;
+    private final int[] next;
+    private final int[] previous;
+    private final boolean[] queued;
+    private int[] heads = new int[0];
+    private int ringSize;
+    private int size;
+    private int cursor;
+
+    BucketQueue(int capacity) {
+        keys = new int[capacity];
+        next = new int[capacity];
+        previous = new int[capacity];
+        queued = new boolean[capacity];
+    }
+
+    /**
+     * Empties the queue and sets the largest difference between a queued key and the smallest one.
+     *
+     * @throws IllegalArgumentException if the span is negative or exceeds {@link #MAX_SPAN}
+     */
+    void reset(int span) {
+        if (span < 0 || span > MAX_SPAN) {
+            throw new IllegalArgumentException("Bucket queue span out of range: " + span);
+        }
+        for (int bucket = 0; bucket < ringSize && size > 0; bucket++) {
+            for (int vertex = heads[bucket]; vertex != ABSENT; vertex = next[vertex]) {
+                queued[vertex] = false;
+                size--;
+            }
+        }
+        ringSize = span + 1;
+        if (heads.length < ringSize) {
+            heads = new int[ringSize];
+        }
+        Arrays.fill(heads, 0, ringSize, ABSENT);
+        size = 0;
+        cursor = 0;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Inserts the vertex, or lowers its key if it is already queued with a larger one.
+     */
+    void insertOrDecrease(int vertex, int key) {
+        if (queued[vertex]) {
+            if (key >= keys[vertex]) {
+                return;
+            }
+            unlink(vertex);
+        } else {
+            queued[vertex] = true;
+            size++;
+        }
+        if (size == 1 || key < cursor) {
+            cursor = key;
+        }
+        keys[vertex] = key;
+        int bucket = key % ringSize;
+        next[vertex] = heads[bucket];
+        previous[vertex] = ABSENT;
+        if (heads[bucket] != ABSENT) {
+            previous[heads[bucket]] = vertex;
+        }
+        heads[bucket] = vertex;
+    }
+
+    int minKey() {
+        return keys[heads[advance()]];
+    }
+
+    /**
+     * Removes a vertex with the smallest key and returns it.
+     */
+    int pollMin() {
+        int vertex = heads[advance()];
+        unlink(vertex);
+        queued[vertex] = false;
+        size--;
+        return vertex;
+    }
+
+    /**
+     * Moves the cursor to the smallest queued key and returns its bucket.
+     */
+    private int advance() {
+        if (size == 0) {
+            throw new NoSuchElementException("Queue is empty");
+        }
+        while (heads[cursor % ringSize] == ABSENT) {
+            cursor++;
+        }
+        return cursor % ringSize;
+    }
+
+    private void unlink(int vertex) {
+        if (previous[vertex] != ABSENT) {
+            next[previous[vertex]] = next[vertex];
+        } else {
+            heads[keys[vertex] % ringSize] = next[vertex];
+        }
+        if (next[vertex] != ABSENT) {
+            previous[next[vertex]] = previous[vertex];
+        }
+    }
+}
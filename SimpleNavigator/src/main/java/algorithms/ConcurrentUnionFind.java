@@ -0,0 +1,61 @@
+package algorithms;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * Lock-free disjoint sets of the integers {@code 0..size-1} for concurrent use.
+ * <p>
+ * Parent links change only by compare-and-set: a union links one root below the other only while it is
+ * still a root, retrying otherwise, and finds halve their paths with a compare-and-set that loses harmlessly
+ * to a concurrent update. Roots are linked by index, the larger below the smaller, which keeps the links acyclic.
+ */
+final class ConcurrentUnionFind {
+    private static final VarHandle PARENTS = MethodHandles.arrayElementVarHandle(int[].class);
+
+    private final int[] parents;
+
+    ConcurrentUnionFind(int size) {
+        parents = new int[size];
+        for (int i = 0; i < size; i++) {
+            parents[i] = i;
+        }
+    }
+
+    /**
+     * Returns the current representative of the set that holds the element.
+     */
+    int find(int element) {
+        while (true) {
+            int parent = (int) PARENTS.getVolatile(parents, element);
+            if (parent == element) {
+                return element;
+            }
+            int grandparent = (int) PARENTS.getVolatile(parents, parent);
+            if (grandparent != parent) {
+                PARENTS.compareAndSet(parents, element, parent, grandparent);
+            }
+            element = grandparent;
+        }
+    }
+
+    /**
+     * Merges the sets of two elements.
+     *
+     * @return true if this call merged them, false if they were already in one set
+     */
+    boolean union(int first, int second) {
+        while (true) {
+            int firstRoot = find(first);
+            int secondRoot = find(second);
+            if (firstRoot == secondRoot) {
+                return false;
+            }
+            int child = Math.max(firstRoot, secondRoot);
+            int root = Math.min(firstRoot, secondRoot);
+            if (PARENTS.compareAndSet(parents, child, child, root)) {
+                return true;
+            }
+        }
+    }
+}
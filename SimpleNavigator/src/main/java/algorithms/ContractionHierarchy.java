@@ -0,0 +1,199 @@
+package algorithms;
+
+import graph.Graph;
+import graph.NeighborCursor;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+
+/**
+ * Contraction hierarchy of a graph: every vertex has a rank, and shortcut edges stand in for
+ * the shortest paths through lower-ranked vertices. A shortest path query then only climbs
+ * the hierarchy from both ends, which settles a small fraction of the vertices.
+ * <p>
+ * The search graph is kept in two compressed sparse row structures: the upward edges leading from
+ * each vertex to higher-ranked ones, and the downward edges leading into each vertex from higher-ranked
+ * ones, stored at the lower end so the backward search can climb them too. Every edge remembers
+ * the contracted vertex it bypasses, so routes can be unpacked into original edges.
+ * <p>
+ * The hierarchy is bound to the graph as loaded when it was built or loaded, and can be saved next to
+ * the graph file to skip the contraction on the next run. A saved hierarchy only loads for a graph
+ * with the same fingerprint.
+ */
+public final class ContractionHierarchy {
+    private static final int MAGIC = 0x43474E53; // "SNGC" in file byte order
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 32;
+
+    /**
+     * Compressed sparse row edges of the search graph; {@code middles} holds the bypassed vertex of a shortcut, or -1.
+     */
+    record Edges(int[] offsets, int[] targets, int[] weights, int[] middles) {}
+
+    private final Graph graph;
+    private final NeighborCursor boundEdges;
+    private final int[] ranks;
+    private final Edges upward;
+    private final Edges downward;
+
+    ContractionHierarchy(Graph graph, int[] ranks, Edges upward, Edges downward) {
+        this.graph = graph;
+        this.boundEdges = graph.newNeighborCursor();
+        this.ranks = ranks;
+        this.upward = upward;
+        this.downward = downward;
+    }
+
+    /**
+     * Contracts the graph. Edges with non-positive weight and self-loops are ignored,
+     * as in the other shortest path searches.
+     *
+     * @param graph the graph to preprocess
+     * @return the hierarchy bound to the graph
+     */
+    public static ContractionHierarchy build(Graph graph) {
+        if (graph == null) {
+            throw new IllegalArgumentException("Graph cannot be null");
+        }
+        return HierarchyContractor.contract(graph);
+    }
+
+    /**
+     * Loads a hierarchy saved by {@link #save} and binds it to the graph.
+     *
+     * @param graph the graph the hierarchy was built for
+     * @param filename the path to the hierarchy file
+     * @return the hierarchy bound to the graph
+     * @throws IOException if the file cannot be read
+     * @throws IllegalArgumentException if the file is not a contraction hierarchy of this graph
+     */
+    public static ContractionHierarchy load(Graph graph, String filename) throws IOException {
+        if (graph == null) {
+            throw new IllegalArgumentException("Graph cannot be null");
+        }
+        try (FileChannel channel = BinaryFiles.openForReading(filename)) {
+            ByteBuffer header = BinaryFiles.readFully(channel, 0, HEADER_SIZE);
+            if (header.getInt() != MAGIC) {
+                throw new IllegalArgumentException("Not a contraction hierarchy file");
+            }
+            int version = header.getInt();
+            if (version != VERSION) {
+                throw new IllegalArgumentException("Unsupported contraction hierarchy version: " + version);
+            }
+            int vertexCount = header.getInt();
+            int upwardCount = header.getInt();
+            int downwardCount = header.getInt();
+            header.getInt();
+            long fingerprint = header.getLong();
+            if (vertexCount != graph.getVertexCount() || fingerprint != graph.getFingerprint()) {
+                throw new IllegalArgumentException("Contraction hierarchy file was built for a different graph");
+            }
+            if (upwardCount < 0 || downwardCount < 0) {
+                throw new IllegalArgumentException("Invalid edge count: " + Math.min(upwardCount, downwardCount));
+            }
+
+            long position = HEADER_SIZE;
+            int[] ranks = BinaryFiles.readInts(channel, position, vertexCount);
+            position += (long) Integer.BYTES * vertexCount;
+            Edges upward = readEdges(channel, position, vertexCount, upwardCount);
+            position += Integer.BYTES * (vertexCount + 1L + 3L * upwardCount);
+            Edges downward = readEdges(channel, position, vertexCount, downwardCount);
+            return new ContractionHierarchy(graph, ranks, upward, downward);
+        }
+    }
+
+    /**
+     * Saves the hierarchy in a little-endian binary file: a 32-byte header with magic, version,
+     * vertex count, upward and downward edge counts and the graph fingerprint, followed by the ranks
+     * and the offsets, targets, weights and bypassed vertices of the upward and then the downward edges.
+     *
+     * @param filename the path to the output file
+     * @throws IOException if the file cannot be written
+     */
+    public void save(String filename) throws IOException {
+        try (FileChannel channel = BinaryFiles.openForWriting(filename)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            header.putInt(MAGIC)
+                    .putInt(VERSION)
+                    .putInt(ranks.length)
+                    .putInt(upward.targets().length)
+                    .putInt(downward.targets().length)
+                    .putInt(0)
+                    .putLong(graph.getFingerprint())
+                    .flip();
+            BinaryFiles.writeFully(channel, header);
+            BinaryFiles.writeInts(channel, ranks);
+            writeEdges(channel, upward);
+            writeEdges(channel, downward);
+        }
+    }
+
+    /**
+     * Returns whether the hierarchy was built for the graph as currently loaded.
+     */
+    public boolean isFor(Graph graph) {
+        return this.graph == graph && graph.isCurrent(boundEdges);
+    }
+
+    /**
+     * Returns the number of shortcut edges in the search graph.
+     */
+    public int getShortcutCount() {
+        int count = 0;
+        for (Edges edges : new Edges[]{upward, downward}) {
+            for (int middle : edges.middles()) {
+                if (middle >= 0) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    Edges upward() {
+        return upward;
+    }
+
+    Edges downward() {
+        return downward;
+    }
+
+    /**
+     * Returns the bypassed vertex of the search graph edge between two vertices, or -1 for an original edge.
+     */
+    int middle(int source, int target) {
+        if (ranks[target] > ranks[source]) {
+            return middle(upward, source, target);
+        }
+        return middle(downward, target, source);
+    }
+
+    private static int middle(Edges edges, int vertex, int neighbor) {
+        for (int e = edges.offsets()[vertex]; e < edges.offsets()[vertex + 1]; e++) {
+            if (edges.targets()[e] == neighbor) {
+                return edges.middles()[e];
+            }
+        }
+        throw new IllegalStateException("No edge between vertex " + vertex + " and vertex " + neighbor);
+    }
+
+    private static Edges readEdges(FileChannel channel, long position, int vertexCount, int edgeCount) throws IOException {
+        int[] offsets = BinaryFiles.readInts(channel, position, vertexCount + 1);
+        position += Integer.BYTES * (vertexCount + 1L);
+        int[] targets = BinaryFiles.readInts(channel, position, edgeCount);
+        position += (long) Integer.BYTES * edgeCount;
+        int[] weights = BinaryFiles.readInts(channel, position, edgeCount);
+        position += (long) Integer.BYTES * edgeCount;
+        int[] middles = BinaryFiles.readInts(channel, position, edgeCount);
+        return new Edges(offsets, targets, weights, middles);
+    }
+
+    private static void writeEdges(FileChannel channel, Edges edges) throws IOException {
+        BinaryFiles.writeInts(channel, edges.offsets());
+        BinaryFiles.writeInts(channel, edges.targets());
+        BinaryFiles.writeInts(channel, edges.weights());
+        BinaryFiles.writeInts(channel, edges.middles());
+    }
+}
@@ -0,0 +1,274 @@
+package algorithms;
+
+import S21_collection.IntStack;
+import graph.Graph;
+import graph.NeighborCursor;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Parallel delta-stepping single-source shortest paths (Meyer and Sanders).
+ * <p>
+ * Tentative distances are kept in buckets of width delta. The smallest non-empty bucket is emptied
+ * in phases: its vertices relax their light edges, of weight at most delta, in parallel, which may
+ * refill the same bucket; once it stays empty, every vertex removed from it relaxes its heavy edges once.
+ * Distances are lowered with compare-and-set, so the relaxations of a phase take no locks. No tentative
+ * distance is more than the largest edge weight ahead of the current bucket, so the buckets form a ring,
+ * indexed by bucket number modulo its size. The ring is capped at one bucket per vertex: vertices beyond its
+ * window wait in an overflow heap keyed by bucket number and enter the ring as soon as the window reaches
+ * their bucket, and once the ring runs empty the search jumps to the nearest of them, so huge weights or
+ * a tiny delta cost neither memory nor scans of empty buckets.
+ * <p>
+ * Predecessors are assigned after the distances are final: any neighbor on a shortest path will do.
+ * Edges with non-positive weight are ignored, as in the other searches.
+ */
+final class DeltaSteppingSearch {
+    private static final int VERTICES_PER_TASK = 64;
+    private static final VarHandle DISTANCES = MethodHandles.arrayElementVarHandle(int[].class);
+
+    private final Graph graph;
+    private final ForkJoinPool pool;
+    private final int delta;
+    private final int vertexCount;
+    private final int[] distances;
+    private final IntStack[] buckets;
+    /** Vertices keyed by a bucket beyond the ring window, created on the first overflow */
+    private IndexedDaryHeap overflow;
+    /** Entries in the ring, stale ones included */
+    private int ringCount;
+    private int current;
+    private final ConcurrentLinkedQueue<IntStack> reached = new ConcurrentLinkedQueue<>();
+    /** Stamps that keep a vertex from being taken twice in a phase, settled twice in a bucket or queued twice */
+    private final int[] takenStamps;
+    private final int[] settledStamps;
+    private final int[] queuedStamps;
+    private int phase;
+    private int mergeEpoch;
+
+    private DeltaSteppingSearch(Graph graph, int delta, ForkJoinPool pool) {
+        this.graph = graph;
+        this.pool = pool;
+        this.delta = delta;
+        vertexCount = graph.getVertexCount();
+        distances = new int[vertexCount];
+        takenStamps = new int[vertexCount];
+        settledStamps = new int[vertexCount];
+        queuedStamps = new int[vertexCount];
+        buckets = new IntStack[(int) Math.min(Math.max(0, graph.getMaxEdgeWeight()) / delta + 2, vertexCount + 1L)];
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new IntStack();
+        }
+    }
+
+    /**
+     * Computes the shortest path tree of the source.
+     *
+     * @param delta the bucket width, at least 1
+     */
+    static DistanceTree tree(Graph graph, int source, int delta, ForkJoinPool pool) {
+        if (delta < 1) {
+            throw new IllegalArgumentException("Delta must be positive: " + delta);
+        }
+        return new DeltaSteppingSearch(graph, delta, pool).run(source);
+    }
+
+    /**
+     * Derives the bucket width from the weights: twice the mean weight over the mean out-degree,
+     * about the largest weight over the degree for evenly spread weights, but never below the smallest weight.
+     */
+    static int defaultDelta(Graph graph) {
+        long weightSum = 0;
+        long edgeCount = 0;
+        int minWeight = Integer.MAX_VALUE;
+        NeighborCursor neighbors = graph.newNeighborCursor();
+        for (int vertex = 0; vertex < graph.getVertexCount(); vertex++) {
+            neighbors.reset(vertex);
+            while (neighbors.next()) {
+                int weight = neighbors.weight();
+                if (weight > 0) {
+                    weightSum += weight;
+                    edgeCount++;
+                    minWeight = Math.min(minWeight, weight);
+                }
+            }
+        }
+        if (edgeCount == 0) {
+            return 1;
+        }
+        double meanDegree = (double) edgeCount / graph.getVertexCount();
+        double delta = 2.0 * weightSum / edgeCount / Math.max(1, meanDegree);
+        return (int) Math.max(minWeight, Math.min(Integer.MAX_VALUE / 2, Math.ceil(delta)));
+    }
+
+    private DistanceTree run(int source) {
+        Arrays.fill(distances, DistanceTree.UNREACHABLE);
+        distances[source] = 0;
+        enqueue(source);
+
+        int[] frontier = new int[16];
+        int[] settled = new int[16];
+        for (; ; current++) {
+            if (ringCount == 0) {
+                if (overflow == null || overflow.isEmpty()) {
+                    break;
+                }
+                current = overflow.minKey();
+            }
+            admitOverflow();
+            if (bucket(current).isEmpty()) {
+                continue;
+            }
+            int settledCount = 0;
+            while (!bucket(current).isEmpty()) {
+                phase++;
+                IntStack bucket = bucket(current);
+                int frontierSize = 0;
+                while (!bucket.isEmpty()) {
+                    int vertex = bucket.pop();
+                    ringCount--;
+                    // Entries of vertices that moved to an earlier bucket or were taken already are stale
+                    if (distances[vertex] / delta != current || takenStamps[vertex] == phase) {
+                        continue;
+                    }
+                    takenStamps[vertex] = phase;
+                    if (frontierSize == frontier.length) {
+                        frontier = Arrays.copyOf(frontier, frontierSize * 2);
+                    }
+                    frontier[frontierSize++] = vertex;
+                    if (settledStamps[vertex] != current + 1) {
+                        settledStamps[vertex] = current + 1;
+                        if (settledCount == settled.length) {
+                            settled = Arrays.copyOf(settled, settledCount * 2);
+                        }
+                        settled[settledCount++] = vertex;
+                    }
+                }
+                relax(frontier, frontierSize, true);
+            }
+            relax(settled, settledCount, false);
+        }
+        return new DistanceTree(source, distances, predecessors(source));
+    }
+
+    private IntStack bucket(int index) {
+        return buckets[index % buckets.length];
+    }
+
+    /**
+     * Queues the vertex in the bucket of its distance, or in the overflow if that bucket is beyond the ring.
+     */
+    private void enqueue(int vertex) {
+        int index = distances[vertex] / delta;
+        if (index - current < buckets.length) {
+            bucket(index).push(vertex);
+            ringCount++;
+            return;
+        }
+        if (overflow == null) {
+            overflow = new IndexedDaryHeap(vertexCount);
+        }
+        overflow.insertOrDecrease(vertex, index);
+    }
+
+    /**
+     * Moves the overflow entries whose bucket entered the ring window into the ring. Called whenever the window
+     * moves, so no overflow bucket ever falls behind the current one.
+     */
+    private void admitOverflow() {
+        while (overflow != null && !overflow.isEmpty() && overflow.minKey() - current < buckets.length) {
+            int index = overflow.minKey();
+            int vertex = overflow.pollMin();
+            // Vertices lowered into the ring since they overflowed are queued there already
+            if (distances[vertex] / delta == index) {
+                bucket(index).push(vertex);
+                ringCount++;
+            }
+        }
+    }
+
+    /**
+     * Relaxes the light or the heavy edges of the vertices in parallel and queues every vertex
+     * whose distance went down in the bucket of its new distance.
+     */
+    private void relax(int[] vertices, int count, boolean light) {
+        ParallelRange.forEach(pool, 0, count, VERTICES_PER_TASK, (from, to) -> {
+            NeighborCursor neighbors = graph.newNeighborCursor();
+            IntStack lowered = new IntStack();
+            for (int i = from; i < to; i++) {
+                int vertex = vertices[i];
+                int distance = (int) DISTANCES.getOpaque(distances, vertex);
+                neighbors.reset(vertex);
+                while (neighbors.next()) {
+                    int weight = neighbors.weight();
+                    if (weight <= 0 || (weight <= delta) != light) {
+                        continue;
+                    }
+                    long candidate = (long) distance + weight;
+                    if (candidate < DistanceTree.UNREACHABLE && lower(neighbors.target(), (int) candidate)) {
+                        lowered.push(neighbors.target());
+                    }
+                }
+            }
+            if (!lowered.isEmpty()) {
+                reached.add(lowered);
+            }
+        });
+
+        mergeEpoch++;
+        for (IntStack lowered = reached.poll(); lowered != null; lowered = reached.poll()) {
+            while (!lowered.isEmpty()) {
+                int vertex = lowered.pop();
+                if (queuedStamps[vertex] != mergeEpoch) {
+                    queuedStamps[vertex] = mergeEpoch;
+                    enqueue(vertex);
+                }
+            }
+        }
+    }
+
+    /**
+     * Atomically lowers the distance of the vertex to the candidate.
+     *
+     * @return true if the candidate was shorter than the current distance
+     */
+    private boolean lower(int vertex, int candidate) {
+        int current = (int) DISTANCES.getVolatile(distances, vertex);
+        while (candidate < current) {
+            int witness = (int) DISTANCES.compareAndExchange(distances, vertex, current, candidate);
+            if (witness == current) {
+                return true;
+            }
+            current = witness;
+        }
+        return false;
+    }
+
+    private int[] predecessors(int source) {
+        int[] predecessors = new int[vertexCount];
+        Arrays.fill(predecessors, -1);
+        ParallelRange.forEach(pool, 0, vertexCount, VERTICES_PER_TASK, (from, to) -> {
+            NeighborCursor neighbors = graph.newNeighborCursor();
+            for (int vertex = from; vertex < to; vertex++) {
+                int distance = distances[vertex];
+                if (distance == DistanceTree.UNREACHABLE) {
+                    continue;
+                }
+                neighbors.reset(vertex);
+                while (neighbors.next()) {
+                    int child = neighbors.target();
+                    int weight = neighbors.weight();
+                    // Concurrent writes to one vertex all store a valid predecessor
+                    if (weight > 0 && child != source && (long) distance + weight == distances[child]) {
+                        predecessors[child] = vertex;
+                    }
+                }
+            }
+        });
+        predecessors[source] = source;
+        return predecessors;
+    }
+}
@@ -0,0 +1,59 @@
+package algorithms;
+
+import graph.NeighborCursor;
+
+/**
+ * Dijkstra's algorithm that scans all vertices for the closest unvisited one, O(V^2).
+ * Suits dense graphs, where a heap does not pay off.
+ */
+final class DenseScanSearch implements PointToPointSearch {
+    static final DenseScanSearch INSTANCE = new DenseScanSearch();
+
+    private DenseScanSearch() {
+    }
+
+    @Override
+    public int distance(QueryWorkspace workspace, int vertex1, int vertex2) {
+        NeighborCursor neighbors = workspace.neighbors();
+        int vertexCount = workspace.vertexCount();
+        workspace.reach(vertex1, 0, vertex1);
+
+        for (int i = 0; i < vertexCount; i++) {
+            int minDistance = Integer.MAX_VALUE;
+            int minVertex = -1;
+
+            for (int j = 0; j < vertexCount; j++) {
+                if (!workspace.isSettled(j) && workspace.distance(j) < minDistance) {
+                    minDistance = workspace.distance(j);
+                    minVertex = j;
+                }
+            }
+
+            // Если граф несвязный
+            if (minVertex == -1) {
+                break;
+            }
+            // Выходим, если обработали нужную вершину
+            if (minVertex == vertex2) {
+                break;
+            }
+
+            workspace.settle(minVertex);
+
+            neighbors.reset(minVertex);
+            while (neighbors.next()) {
+                int j = neighbors.target();
+                if (j != minVertex && !workspace.isSettled(j)) {
+                    int edgeWeight = neighbors.weight();
+                    if (edgeWeight > 0) {
+                        int newDistance = minDistance + edgeWeight;
+                        if (newDistance < workspace.distance(j)) {
+                            workspace.reach(j, newDistance, minVertex);
+                        }
+                    }
+                }
+            }
+        }
+        return workspace.distance(vertex2);
+    }
+}
@@ -0,0 +1,61 @@
+package algorithms;
+
+import graph.NeighborCursor;
+
+/**
+ * Dijkstra's algorithm over Dial's bucket queue, O(E + D) where D is the distance to the last settled vertex.
+ * Suits graphs with small positive integer weights, whose distances grow slowly; edges with
+ * non-positive weight are ignored. Graphs with weights above {@link BucketQueue#MAX_SPAN} are searched
+ * with {@link DijkstraSearch} instead.
+ */
+final class DialSearch implements PointToPointSearch {
+    static final DialSearch INSTANCE = new DialSearch();
+
+    private DialSearch() {
+    }
+
+    @Override
+    public int distance(QueryWorkspace workspace, int source, int target) {
+        run(workspace, source, target);
+        return workspace.distance(target);
+    }
+
+    /**
+     * Settles vertices in order of distance from the source until the target is settled.
+     * A negative target settles every reachable vertex.
+     */
+    void run(QueryWorkspace workspace, int source, int target) {
+        int maxWeight = workspace.graph().getMaxEdgeWeight();
+        if (maxWeight > BucketQueue.MAX_SPAN) {
+            DijkstraSearch.INSTANCE.run(workspace, source, target);
+            return;
+        }
+        NeighborCursor neighbors = workspace.neighbors();
+        BucketQueue queue = workspace.buckets();
+        queue.reset(Math.max(0, maxWeight));
+        workspace.reach(source, 0, source);
+        queue.insertOrDecrease(source, 0);
+
+        while (!queue.isEmpty()) {
+            int vertex = queue.pollMin();
+            workspace.settle(vertex);
+            if (vertex == target) {
+                break;
+            }
+            int distance = workspace.distance(vertex);
+            neighbors.reset(vertex);
+            while (neighbors.next()) {
+                int child = neighbors.target();
+                int weight = neighbors.weight();
+                if (weight <= 0 || workspace.isSettled(child)) {
+                    continue;
+                }
+                long candidate = (long) distance + weight;
+                if (candidate < workspace.distance(child)) {
+                    workspace.reach(child, (int) candidate, vertex);
+                    queue.insertOrDecrease(child, (int) candidate);
+                }
+            }
+        }
+    }
+}
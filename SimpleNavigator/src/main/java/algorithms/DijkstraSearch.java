@@ -0,0 +1,53 @@
+package algorithms;
+
+import graph.NeighborCursor;
+
+/**
+ * Dijkstra's algorithm over an indexed d-ary heap, O(E log V).
+ * Only the edges of settled vertices are visited; edges with non-positive weight are ignored.
+ */
+final class DijkstraSearch implements PointToPointSearch {
+    static final DijkstraSearch INSTANCE = new DijkstraSearch();
+
+    private DijkstraSearch() {
+    }
+
+    @Override
+    public int distance(QueryWorkspace workspace, int source, int target) {
+        run(workspace, source, target);
+        return workspace.distance(target);
+    }
+
+    /**
+     * Settles vertices in order of distance from the source until the target is settled.
+     * A negative target settles every reachable vertex.
+     */
+    void run(QueryWorkspace workspace, int source, int target) {
+        NeighborCursor neighbors = workspace.neighbors();
+        IndexedDaryHeap heap = workspace.heap();
+        workspace.reach(source, 0, source);
+        heap.insertOrDecrease(source, 0);
+
+        while (!heap.isEmpty()) {
+            int vertex = heap.pollMin();
+            workspace.settle(vertex);
+            if (vertex == target) {
+                break;
+            }
+            int distance = workspace.distance(vertex);
+            neighbors.reset(vertex);
+            while (neighbors.next()) {
+                int child = neighbors.target();
+                int weight = neighbors.weight();
+                if (weight <= 0 || workspace.isSettled(child)) {
+                    continue;
+                }
+                long candidate = (long) distance + weight;
+                if (candidate < workspace.distance(child)) {
+                    workspace.reach(child, (int) candidate, vertex);
+                    heap.insertOrDecrease(child, (int) candidate);
+                }
+            }
+        }
+    }
+}
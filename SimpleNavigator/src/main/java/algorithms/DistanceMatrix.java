@@ -0,0 +1,373 @@
+package algorithms;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Matrix of shortest distances between all vertices, kept outside the Java heap.
+ * <p>
+ * Entries take one, two or four bytes, the narrowest width that holds the largest distance; the
+ * largest value of a width marks a missing path. Rows are stored in direct buffers or in a memory-mapped
+ * file, split into chunks of whole rows of at most 1 GiB each, so {@link #get} is a single indexed read.
+ * <p>
+ * A mapped file starts with a 32-byte little-endian header: magic, version, vertex count, entry width
+ * and the fingerprint of the graph, followed by the rows. It can be opened again with {@link #open}.
+ * <p>
+ * Direct buffers count against the JVM direct memory limit ({@code -XX:MaxDirectMemorySize}, by default
+ * the maximal heap size) and are only freed by the garbage collector. A matrix built without a file is
+ * therefore kept in direct buffers only up to {@value #MAX_DIRECT_BYTES} bytes; larger ones are mapped from
+ * a temporary file, which takes page cache instead. {@link #close} drops the buffers and deletes that file.
+ */
+public final class DistanceMatrix implements AutoCloseable {
+    /** Returned for pairs of vertices without a path */
+    public static final int UNREACHABLE = Integer.MAX_VALUE;
+
+    static final int MAGIC = 0x44474E53; // "SNGD" in file byte order
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 32;
+    private static final long MAX_CHUNK_BYTES = 1L << 30;
+    private static final int BLOCK_ENTRIES = 1 << 22;
+    /** Largest matrix kept in direct buffers when no file is given, measured with four-byte entries */
+    static final long MAX_DIRECT_BYTES = 1L << 28;
+
+    private final int vertexCount;
+    private final int width;
+    private final long fingerprint;
+    private final int rowsPerChunk;
+    private ByteBuffer[] chunks;
+    /** File mapped in place of direct buffers, deleted on close */
+    private Path temporaryFile;
+
+    private DistanceMatrix(int vertexCount, int width, long fingerprint, ByteBuffer[] chunks) {
+        this.vertexCount = vertexCount;
+        this.width = width;
+        this.fingerprint = fingerprint;
+        this.rowsPerChunk = rowsPerChunk(vertexCount, width);
+        this.chunks = chunks;
+    }
+
+    /**
+     * Fills the rows of a distance matrix block by block.
+     */
+    @FunctionalInterface
+    interface RowProducer {
+        /**
+         * Stores the distances from every source in {@code [fromRow, toRow)} to every vertex in {@code block},
+         * row after row, with {@link FloydWarshall#INFINITY} or more for missing paths.
+         */
+        void produce(int fromRow, int toRow, int[] block);
+    }
+
+    /**
+     * Builds a matrix from rows produced in blocks. The entry width starts at one byte and grows
+     * when a block holds a larger distance, copying the rows stored so far into a wider matrix.
+     *
+     * @param file the file to map the matrix into, or null to keep it in direct buffers or, if it is large,
+     *             in a temporary file
+     */
+    static DistanceMatrix build(int vertexCount, long fingerprint, Path file, RowProducer producer) throws IOException {
+        return build(vertexCount, fingerprint, file, producer, MAX_DIRECT_BYTES);
+    }
+
+    /**
+     * Builds a matrix as {@link #build(int, long, Path, RowProducer)} with another bound on direct buffers.
+     */
+    static DistanceMatrix build(int vertexCount, long fingerprint, Path file, RowProducer producer, long maxDirectBytes)
+            throws IOException {
+        int blockRows = Math.max(1, Math.min(vertexCount, BLOCK_ENTRIES / Math.max(1, vertexCount)));
+        boolean temporary = file == null && (long) vertexCount * vertexCount * Integer.BYTES > maxDirectBytes;
+        // Every build writes a file of its own, so concurrent builds of one file never truncate each other's
+        Path building = createPartFile(file, temporary);
+        DistanceMatrix matrix;
+        try {
+            matrix = allocate(vertexCount, 1, fingerprint, building);
+            int[] block = new int[blockRows * vertexCount];
+            for (int fromRow = 0; fromRow < vertexCount; fromRow += blockRows) {
+                int toRow = Math.min(vertexCount, fromRow + blockRows);
+                int entries = (toRow - fromRow) * vertexCount;
+                producer.produce(fromRow, toRow, block);
+
+                int maxDistance = 0;
+                for (int e = 0; e < entries; e++) {
+                    if (block[e] < FloydWarshall.INFINITY && block[e] > maxDistance) {
+                        maxDistance = block[e];
+                    }
+                }
+                if (widthFor(maxDistance) > matrix.width) {
+                    // The narrower file stays mapped, so the wider rows go to a new file rather than over it
+                    Path wider = createPartFile(file, temporary);
+                    try {
+                        matrix = matrix.widen(widthFor(maxDistance), fromRow, wider);
+                    } catch (IOException | RuntimeException e) {
+                        if (wider != null) {
+                            deleteMapped(wider);
+                        }
+                        throw e;
+                    }
+                    if (building != null) {
+                        deleteMapped(building);
+                    }
+                    building = wider;
+                }
+                for (int row = fromRow; row < toRow; row++) {
+                    matrix.writeRow(row, block, (row - fromRow) * vertexCount);
+                }
+            }
+            if (file != null) {
+                Files.move(building, file, StandardCopyOption.ATOMIC_MOVE);
+            }
+        } catch (IOException | RuntimeException e) {
+            if (building != null) {
+                deleteMapped(building);
+            }
+            throw e;
+        }
+        if (temporary) {
+            matrix.temporaryFile = building;
+        }
+        return matrix;
+    }
+
+    /**
+     * Maps a matrix file written by {@link GraphAlgorithmsImpl#getDistanceMatrix(graph.Graph, String)} read-only.
+     *
+     * @param filename the path to the matrix file
+     * @return the mapped matrix
+     * @throws IOException if the file cannot be opened or mapped
+     * @throws IllegalArgumentException if the file is not a distance matrix
+     */
+    public static DistanceMatrix open(String filename) throws IOException {
+        try (FileChannel channel = BinaryFiles.openForReading(filename)) {
+            ByteBuffer header = BinaryFiles.readFully(channel, 0, HEADER_SIZE);
+            if (header.getInt() != MAGIC) {
+                throw new IllegalArgumentException("Not a distance matrix file");
+            }
+            int version = header.getInt();
+            if (version != VERSION) {
+                throw new IllegalArgumentException("Unsupported distance matrix version: " + version);
+            }
+            int vertexCount = header.getInt();
+            int width = header.getInt();
+            long fingerprint = header.getLong();
+            if (vertexCount < 1 || (width != 1 && width != 2 && width != 4)) {
+                throw new IllegalArgumentException("Invalid distance matrix header");
+            }
+            if (channel.size() < HEADER_SIZE + (long) vertexCount * vertexCount * width) {
+                throw new IllegalArgumentException("File is truncated");
+            }
+            return new DistanceMatrix(vertexCount, width, fingerprint,
+                    mapChunks(channel, FileChannel.MapMode.READ_ONLY, vertexCount, width));
+        }
+    }
+
+    public int getVertexCount() {
+        return vertexCount;
+    }
+
+    /**
+     * Returns the number of bytes per entry: 1, 2 or 4.
+     */
+    public int getEntryWidth() {
+        return width;
+    }
+
+    /**
+     * Returns the fingerprint of the graph the matrix was computed for.
+     */
+    public long getFingerprint() {
+        return fingerprint;
+    }
+
+    /**
+     * Returns the distance from one vertex to another, or {@link #UNREACHABLE}.
+     */
+    public int get(int from, int to) {
+        if (from < 0 || from >= vertexCount || to < 0 || to >= vertexCount) {
+            throw new IllegalArgumentException("Invalid vertex index: " + from + " or " + to);
+        }
+        ByteBuffer chunk = chunks()[from / rowsPerChunk];
+        int index = ((from % rowsPerChunk) * vertexCount + to) * width;
+        return switch (width) {
+            case 1 -> decode(chunk.get(index) & 0xFF, 0xFF);
+            case 2 -> decode(chunk.getShort(index) & 0xFFFF, 0xFFFF);
+            default -> chunk.getInt(index);
+        };
+    }
+
+    /**
+     * Copies the distances from one vertex to every vertex into the array, so rows can be
+     * streamed through one reusable buffer.
+     *
+     * @param from the source vertex
+     * @param row the array of at least {@link #getVertexCount()} elements to fill
+     * @return the same array
+     */
+    public int[] readRow(int from, int[] row) {
+        if (from < 0 || from >= vertexCount) {
+            throw new IllegalArgumentException("Invalid vertex index: " + from);
+        }
+        ByteBuffer chunk = chunks()[from / rowsPerChunk];
+        int start = (from % rowsPerChunk) * vertexCount * width;
+        for (int to = 0; to < vertexCount; to++) {
+            int index = start + to * width;
+            row[to] = switch (width) {
+                case 1 -> decode(chunk.get(index) & 0xFF, 0xFF);
+                case 2 -> decode(chunk.getShort(index) & 0xFFFF, 0xFFFF);
+                default -> chunk.getInt(index);
+            };
+        }
+        return row;
+    }
+
+    /**
+     * Copies the matrix into heap arrays; meant for small graphs.
+     */
+    public int[][] toArray() {
+        int[][] result = new int[vertexCount][];
+        for (int i = 0; i < vertexCount; i++) {
+            result[i] = readRow(i, new int[vertexCount]);
+        }
+        return result;
+    }
+
+    /**
+     * Drops the buffers and deletes the temporary file of a large matrix built without a file. The memory
+     * itself is returned once the buffers are collected; the matrix must not be read afterwards.
+     */
+    @Override
+    public void close() {
+        chunks = null;
+        if (temporaryFile != null) {
+            deleteMapped(temporaryFile);
+            temporaryFile = null;
+        }
+    }
+
+    /**
+     * Returns the temporary file the matrix is mapped from, or null if it has none.
+     */
+    Path temporaryFile() {
+        return temporaryFile;
+    }
+
+    private ByteBuffer[] chunks() {
+        ByteBuffer[] current = chunks;
+        if (current == null) {
+            throw new IllegalStateException("Distance matrix is closed");
+        }
+        return current;
+    }
+
+    static int widthFor(int maxDistance) {
+        if (maxDistance < 0xFF) {
+            return 1;
+        }
+        return maxDistance < 0xFFFF ? 2 : 4;
+    }
+
+    private static int decode(int value, int missing) {
+        return value == missing ? UNREACHABLE : value;
+    }
+
+    private void writeRow(int row, int[] values, int offset) {
+        ByteBuffer chunk = chunks()[row / rowsPerChunk];
+        int start = (row % rowsPerChunk) * vertexCount * width;
+        for (int to = 0; to < vertexCount; to++) {
+            int value = values[offset + to];
+            int index = start + to * width;
+            boolean missing = value >= FloydWarshall.INFINITY || value == UNREACHABLE;
+            switch (width) {
+                case 1 -> chunk.put(index, (byte) (missing ? 0xFF : value));
+                case 2 -> chunk.putShort(index, (short) (missing ? 0xFFFF : value));
+                default -> chunk.putInt(index, missing ? UNREACHABLE : value);
+            }
+        }
+    }
+
+    /**
+     * Copies the first rows into a new matrix with wider entries.
+     *
+     * @param file the new file to map the wider matrix into, or null to keep it in direct buffers
+     */
+    private DistanceMatrix widen(int newWidth, int rowCount, Path file) throws IOException {
+        DistanceMatrix wider = allocate(vertexCount, newWidth, fingerprint, file);
+        int[] row = new int[vertexCount];
+        for (int i = 0; i < rowCount; i++) {
+            wider.writeRow(i, readRow(i, row), 0);
+        }
+        return wider;
+    }
+
+    /**
+     * Creates the file to build into: next to the target file, in the temporary directory, or none for direct buffers.
+     */
+    private static Path createPartFile(Path file, boolean temporary) throws IOException {
+        if (temporary) {
+            return Files.createTempFile("distance-matrix", ".part");
+        }
+        if (file == null) {
+            return null;
+        }
+        return Files.createTempFile(file.toAbsolutePath().getParent(), file.getFileName().toString(), ".part");
+    }
+
+    /**
+     * Deletes a file that may still be mapped. Where mapped files cannot be deleted, it is left to be deleted on exit.
+     */
+    private static void deleteMapped(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            file.toFile().deleteOnExit();
+        }
+    }
+
+    private static DistanceMatrix allocate(int vertexCount, int width, long fingerprint, Path file) throws IOException {
+        if (file == null) {
+            int rowsPerChunk = rowsPerChunk(vertexCount, width);
+            ByteBuffer[] chunks = new ByteBuffer[(vertexCount + rowsPerChunk - 1) / rowsPerChunk];
+            for (int c = 0; c < chunks.length; c++) {
+                int rows = Math.min(rowsPerChunk, vertexCount - c * rowsPerChunk);
+                chunks[c] = ByteBuffer.allocateDirect(rows * vertexCount * width).order(ByteOrder.nativeOrder());
+            }
+            return new DistanceMatrix(vertexCount, width, fingerprint, chunks);
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            header.putInt(MAGIC)
+                    .putInt(VERSION)
+                    .putInt(vertexCount)
+                    .putInt(width)
+                    .putLong(fingerprint)
+                    .putLong(0)
+                    .flip();
+            BinaryFiles.writeFully(channel, header);
+            return new DistanceMatrix(vertexCount, width, fingerprint,
+                    mapChunks(channel, FileChannel.MapMode.READ_WRITE, vertexCount, width));
+        }
+    }
+
+    private static ByteBuffer[] mapChunks(FileChannel channel, FileChannel.MapMode mode, int vertexCount, int width)
+            throws IOException {
+        int rowsPerChunk = rowsPerChunk(vertexCount, width);
+        long rowBytes = (long) vertexCount * width;
+        ByteBuffer[] chunks = new ByteBuffer[(vertexCount + rowsPerChunk - 1) / rowsPerChunk];
+        for (int c = 0; c < chunks.length; c++) {
+            int rows = Math.min(rowsPerChunk, vertexCount - c * rowsPerChunk);
+            chunks[c] = channel.map(mode, HEADER_SIZE + c * rowsPerChunk * rowBytes, rows * rowBytes)
+                    .order(ByteOrder.LITTLE_ENDIAN);
+        }
+        return chunks;
+    }
+
+    private static int rowsPerChunk(int vertexCount, int width) {
+        return (int) Math.max(1, Math.min(vertexCount, MAX_CHUNK_BYTES / ((long) vertexCount * width)));
+    }
+}
@@ -0,0 +1,77 @@
+package algorithms;
+
+/**
+ * Shortest path tree of one source: the distance to every vertex and the vertex it is reached from,
+ * so any number of queries from the source are answered by array lookups.
+ */
+public final class DistanceTree {
+    /** Distance of vertices without a path from the source */
+    public static final int UNREACHABLE = Integer.MAX_VALUE;
+
+    private final int source;
+    private final int[] distances;
+    private final int[] predecessors;
+
+    DistanceTree(int source, int[] distances, int[] predecessors) {
+        this.source = source;
+        this.distances = distances;
+        this.predecessors = predecessors;
+    }
+
+    /**
+     * Copies the tree left in the workspace by a search that settled every vertex reachable from the source.
+     */
+    static DistanceTree of(QueryWorkspace workspace, int source) {
+        int vertexCount = workspace.vertexCount();
+        int[] distances = new int[vertexCount];
+        int[] predecessors = new int[vertexCount];
+        for (int vertex = 0; vertex < vertexCount; vertex++) {
+            distances[vertex] = workspace.distance(vertex);
+            predecessors[vertex] = distances[vertex] == UNREACHABLE ? -1 : workspace.predecessor(vertex);
+        }
+        return new DistanceTree(source, distances, predecessors);
+    }
+
+    public int getSource() {
+        return source;
+    }
+
+    public int getVertexCount() {
+        return distances.length;
+    }
+
+    /**
+     * Returns the shortest distance from the source to the vertex, or {@link #UNREACHABLE}.
+     */
+    public int distance(int target) {
+        checkVertex(target);
+        return distances[target];
+    }
+
+    /**
+     * Returns the vertices of a shortest path from the source to the vertex, both included.
+     *
+     * @throws IllegalArgumentException if the vertex is invalid or unreachable
+     */
+    public int[] route(int target) {
+        checkVertex(target);
+        if (distances[target] == UNREACHABLE) {
+            throw new IllegalArgumentException("No path exists between vertex " + source + " and vertex " + target);
+        }
+        int length = 1;
+        for (int vertex = target; vertex != source; vertex = predecessors[vertex]) {
+            length++;
+        }
+        int[] route = new int[length];
+        for (int vertex = target, i = length - 1; i >= 0; vertex = predecessors[vertex], i--) {
+            route[i] = vertex;
+        }
+        return route;
+    }
+
+    private void checkVertex(int vertex) {
+        if (vertex < 0 || vertex >= distances.length) {
+            throw new IllegalArgumentException("Invalid vertex index: " + vertex);
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package algorithms;
+
+import graph.Graph;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntFunction;
+
+/**
+ * Bounded in-memory cache of shortest path trees, keyed by the graph object, its version and the source.
+ * <p>
+ * Once a tree is cached, every query from its source is an array lookup. When the cache holds more trees
+ * than its capacity, the least recently used ones are evicted; trees of reloaded graphs are never
+ * returned again and leave the cache the same way. The lock is held only to look up and insert trees,
+ * never while a tree is computed, so concurrent misses on the same source may compute it twice.
+ */
+public final class DistanceTreeCache {
+    public static final int DEFAULT_CAPACITY = 256;
+
+    /** Graphs compare by identity, so the key does not hash the edges */
+    private record Key(Graph graph, int version, int source) {}
+
+    private final LinkedHashMap<Key, DistanceTree> trees = new LinkedHashMap<>(16, 0.75f, true);
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private int capacity;
+
+    public DistanceTreeCache() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param capacity the number of trees to keep
+     */
+    public DistanceTreeCache(int capacity) {
+        setCapacity(capacity);
+    }
+
+    public synchronized int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Changes the number of trees to keep, evicting the least recently used ones over the new capacity.
+     */
+    public synchronized void setCapacity(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        this.capacity = capacity;
+        evict();
+    }
+
+    public synchronized int getSize() {
+        return trees.size();
+    }
+
+    public long getHitCount() {
+        return hitCount.sum();
+    }
+
+    public long getMissCount() {
+        return missCount.sum();
+    }
+
+    public synchronized void clear() {
+        trees.clear();
+    }
+
+    /**
+     * Returns the cached tree of the source, computing and caching it on a miss.
+     */
+    DistanceTree get(Graph graph, int source, IntFunction<DistanceTree> compute) {
+        Key key = new Key(graph, graph.getVersion(), source);
+        DistanceTree tree;
+        synchronized (this) {
+            tree = trees.get(key);
+        }
+        if (tree != null) {
+            hitCount.increment();
+            return tree;
+        }
+        missCount.increment();
+        tree = compute.apply(source);
+        synchronized (this) {
+            trees.put(key, tree);
+            evict();
+        }
+        return tree;
+    }
+
+    private void evict() {
+        Iterator<DistanceTree> oldest = trees.values().iterator();
+        while (trees.size() > capacity) {
+            oldest.next();
+            oldest.remove();
+        }
+    }
+}
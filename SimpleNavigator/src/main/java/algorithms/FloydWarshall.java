@@ -0,0 +1,178 @@
+package algorithms;
+
+import graph.Graph;
+import graph.NeighborCursor;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Blocked Floyd–Warshall all-pairs shortest paths over a flat row-major {@code int[]} matrix.
+ * <p>
+ * The matrix is split into square tiles. For every block of intermediate vertices the diagonal tile
+ * is relaxed first, then the tiles in its row and column, then all remaining tiles; the tiles of the
+ * last two phases are independent and run in parallel. Missing paths hold {@link #INFINITY}, which is
+ * small enough that the sum of two of them does not overflow, so the inner loop needs no checks.
+ * <p>
+ * The inner loop is a {@link RelaxKernel}. When the JVM runs with {@code --add-modules jdk.incubator.vector},
+ * the vectorized kernel is used, provided it gives the same result as the scalar one on a random matrix
+ * checked once at startup; otherwise the scalar kernel is used.
+ */
+final class FloydWarshall {
+    /** Distance of unreachable vertices; distances of at least this value are treated as missing paths */
+    static final int INFINITY = Integer.MAX_VALUE / 2;
+    private static final int TILE_SIZE = 64;
+    private static final String VECTOR_MODULE = "jdk.incubator.vector";
+    private static final String VECTOR_KERNEL = "algorithms.VectorRelaxKernel";
+    private static final int SELF_CHECK_SIZE = 2 * TILE_SIZE + 7;
+
+    private final int vertexCount;
+    private final int tileCount;
+    private final int[] distances;
+    private final RelaxKernel kernel;
+
+    private FloydWarshall(int[] distances, int vertexCount, RelaxKernel kernel) {
+        this.vertexCount = vertexCount;
+        this.tileCount = (vertexCount + TILE_SIZE - 1) / TILE_SIZE;
+        this.distances = distances;
+        this.kernel = kernel;
+    }
+
+    private static final class DefaultKernel {
+        static final RelaxKernel INSTANCE = selectKernel();
+    }
+
+    /**
+     * Returns the kernel used by default: vectorized if available and verified, scalar otherwise.
+     */
+    static RelaxKernel defaultKernel() {
+        return DefaultKernel.INSTANCE;
+    }
+
+    /**
+     * Returns the row-major matrix of shortest distances between all vertices, with {@link #INFINITY}
+     * for pairs without a path. Edges with non-positive weight are ignored.
+     */
+    static int[] distances(Graph graph, ForkJoinPool pool) {
+        int vertexCount = graph.getVertexCount();
+        int[] distances = seed(graph);
+        new FloydWarshall(distances, vertexCount, defaultKernel()).run(pool);
+        return distances;
+    }
+
+    /**
+     * Runs the algorithm in place on a seeded row-major matrix with the given kernel.
+     */
+    static void run(int[] distances, int vertexCount, ForkJoinPool pool, RelaxKernel kernel) {
+        new FloydWarshall(distances, vertexCount, kernel).run(pool);
+    }
+
+    /**
+     * Fills the matrix with edge weights, zero on the diagonal and {@link #INFINITY} elsewhere.
+     */
+    static int[] seed(Graph graph) {
+        int vertexCount = graph.getVertexCount();
+        if ((long) vertexCount * vertexCount > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Graph is too large for a distance matrix: " + vertexCount + " vertices");
+        }
+        int[] distances = new int[vertexCount * vertexCount];
+        Arrays.fill(distances, INFINITY);
+        NeighborCursor neighbors = graph.newNeighborCursor();
+        for (int i = 0; i < vertexCount; i++) {
+            int row = i * vertexCount;
+            neighbors.reset(i);
+            while (neighbors.next()) {
+                int weight = neighbors.weight();
+                if (weight > 0 && weight < distances[row + neighbors.target()]) {
+                    distances[row + neighbors.target()] = weight;
+                }
+            }
+            distances[row + i] = 0;
+        }
+        return distances;
+    }
+
+    private void run(ForkJoinPool pool) {
+        for (int k = 0; k < tileCount; k++) {
+            int blockK = k;
+            relaxTile(k, k, k);
+            // The row and the column of the diagonal tile: indices below tileCount are row tiles
+            ParallelRange.forEach(pool, 0, 2 * tileCount, 1, (from, to) -> {
+                for (int t = from; t < to; t++) {
+                    if (t < tileCount) {
+                        if (t != blockK) {
+                            relaxTile(blockK, t, blockK);
+                        }
+                    } else if (t - tileCount != blockK) {
+                        relaxTile(t - tileCount, blockK, blockK);
+                    }
+                }
+            });
+            ParallelRange.forEach(pool, 0, tileCount * tileCount, 1, (from, to) -> {
+                for (int t = from; t < to; t++) {
+                    int tileI = t / tileCount;
+                    int tileJ = t % tileCount;
+                    if (tileI != blockK && tileJ != blockK) {
+                        relaxTile(tileI, tileJ, blockK);
+                    }
+                }
+            });
+        }
+    }
+
+    /**
+     * Relaxes the tile {@code (tileI, tileJ)} through every intermediate vertex of block {@code tileK}.
+     */
+    private void relaxTile(int tileI, int tileJ, int tileK) {
+        int n = vertexCount;
+        int[] d = distances;
+        int iEnd = Math.min(n, (tileI + 1) * TILE_SIZE);
+        int jStart = tileJ * TILE_SIZE;
+        int jEnd = Math.min(n, jStart + TILE_SIZE);
+        int kEnd = Math.min(n, (tileK + 1) * TILE_SIZE);
+        for (int k = tileK * TILE_SIZE; k < kEnd; k++) {
+            int rowK = k * n;
+            for (int i = tileI * TILE_SIZE; i < iEnd; i++) {
+                int rowI = i * n;
+                int throughK = d[rowI + k];
+                if (throughK < INFINITY) {
+                    kernel.relax(d, rowI, rowK, throughK, jStart, jEnd);
+                }
+            }
+        }
+    }
+
+    private static RelaxKernel selectKernel() {
+        if (ModuleLayer.boot().findModule(VECTOR_MODULE).isEmpty()) {
+            return ScalarRelaxKernel.INSTANCE;
+        }
+        try {
+            // Loaded by name so that this class links without the incubator module
+            RelaxKernel vector = (RelaxKernel) Class.forName(VECTOR_KERNEL).getDeclaredConstructor().newInstance();
+            return selfCheck(vector) ? vector : ScalarRelaxKernel.INSTANCE;
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return ScalarRelaxKernel.INSTANCE;
+        }
+    }
+
+    /**
+     * Checks that the kernel gives the same distances as the scalar one on a random matrix
+     * that spans several tiles and has missing edges.
+     */
+    static boolean selfCheck(RelaxKernel kernel) {
+        Random random = new Random(SELF_CHECK_SIZE);
+        int[] expected = new int[SELF_CHECK_SIZE * SELF_CHECK_SIZE];
+        for (int i = 0; i < expected.length; i++) {
+            expected[i] = random.nextInt(4) == 0 ? 1 + random.nextInt(1000) : INFINITY;
+        }
+        for (int i = 0; i < SELF_CHECK_SIZE; i++) {
+            expected[i * SELF_CHECK_SIZE + i] = 0;
+        }
+        int[] actual = expected.clone();
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+        run(expected, SELF_CHECK_SIZE, pool, ScalarRelaxKernel.INSTANCE);
+        run(actual, SELF_CHECK_SIZE, pool, kernel);
+        return Arrays.equals(expected, actual);
+    }
+}
@@ -1,5 +1,7 @@
 package algorithms;
 
+import data.ShortestPath;
+import data.SpanningForest;
 import data.TsmResult;
 import graph.Graph;
 
@@ -8,8 +10,13 @@ import java.util.List;
 public interface GraphAlgorithms {
     List<Integer> depthFirstSearch(Graph graph, int startVertex);
     List<Integer> breadthFirstSearch(Graph graph, int startVertex);
+    int[] parallelBreadthFirstSearch(Graph graph, int startVertex);
     int getShortestPathBetweenVertices(Graph graph, int vertex1, int vertex2);
+    ShortestPath getShortestRouteBetweenVertices(Graph graph, int vertex1, int vertex2);
+    DistanceTree getDistanceTree(Graph graph, int source);
     int[][] getShortestPathsBetweenAllVertices(Graph graph);
+    DistanceMatrix getDistanceMatrix(Graph graph);
     int[][] getLeastSpanningTree(Graph graph);
+    SpanningForest getLeastSpanningForest(Graph graph);
     TsmResult solveTravelingSalesmanProblem(Graph graph);
 }
\ No newline at end of file
@@ -1,312 +1,518 @@
 package algorithms;
 
-import S21_collection.Collection;
-import S21_collection.Queue;
-import S21_collection.Stack;
-
-import data.Edge;
-import data.TspEdge;
 import graph.Graph;
+import data.ShortestPath;
+import data.SpanningForest;
 import data.TsmResult;
-import data.Ant;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
 
 
 public class GraphAlgorithmsImpl implements GraphAlgorithms {
-    private static final double INIT_PHEROMONES = 0.2;
-    private static final int ITERATIONS_PER_VERTEX = 100;
-    private static final int MAX_STAGNATION = 1000;
-    private static final int VERTEX_PENALTY = 10;
-    private static final int MIN_STAGNATION = 50;
-    private static final int DESIRE_REDUCTION = 100;
-    private static final Random random = new Random();
+    /** Costs of one Dijkstra heap step and of one vectorized Floyd–Warshall update relative to a scalar update */
+    private static final double DIJKSTRA_STEP_COST = 2;
+    private static final double VECTOR_UPDATE_COST = 0.25;
+    /** Floyd–Warshall is chosen automatically only while its matrix takes at most this fraction of the heap */
+    private static final int FLOYD_WARSHALL_HEAP_SHARE = 4;
+    /** Graphs with fewer edges gain nothing from running a single-source search in parallel */
+    private static final int MIN_PARALLEL_TREE_EDGES = 1 << 16;
+    /** Largest edge weight for which a bucket queue beats a heap: the buckets are scanned once per unit of distance */
+    private static final int DIAL_MAX_WEIGHT = 256;
+    /** Graphs with fewer edges are spanned faster by one sort than by parallel Borůvka rounds */
+    private static final int MIN_PARALLEL_SPANNING_EDGES = 1 << 20;
+
+    private ShortestPathMode shortestPathMode = ShortestPathMode.AUTO;
+    private LandmarkSearch landmarkSearch;
+    private HierarchySearch hierarchySearch;
+    private AllPairsStrategy allPairsStrategy = AllPairsStrategy.AUTO;
+    private volatile AllPairsStrategy lastAllPairsStrategy;
+    private SingleSourceStrategy singleSourceStrategy = SingleSourceStrategy.AUTO;
+    private int deltaSteppingDelta;
+    private SpanningTreeStrategy spanningTreeStrategy = SpanningTreeStrategy.AUTO;
+    private ResultCache resultCache;
+    private DistanceTreeCache distanceTreeCache;
+
+    public ShortestPathMode getShortestPathMode() {
+        return shortestPathMode;
+    }
 
-    @Override
-    public List<Integer> depthFirstSearch(Graph graph, int startVertex) {
-        if (graph == null) {
-            throw new IllegalArgumentException("Graph cannot be null");
+    /**
+     * Selects the algorithm used for point-to-point shortest path queries.
+     */
+    public void setShortestPathMode(ShortestPathMode shortestPathMode) {
+        if (shortestPathMode == null) {
+            throw new IllegalArgumentException("Shortest path mode cannot be null");
         }
-        Stack<Integer> vertexes = new Stack<>();
+        this.shortestPathMode = shortestPathMode;
+    }
 
-        return searchResult(graph, startVertex,vertexes);
+    public AllPairsStrategy getAllPairsStrategy() {
+        return allPairsStrategy;
+    }
 
+    /**
+     * Selects the algorithm used for all-pairs shortest paths.
+     */
+    public void setAllPairsStrategy(AllPairsStrategy allPairsStrategy) {
+        if (allPairsStrategy == null) {
+            throw new IllegalArgumentException("All-pairs strategy cannot be null");
+        }
+        this.allPairsStrategy = allPairsStrategy;
     }
 
-    @Override
-    public List<Integer> breadthFirstSearch(Graph graph, int startVertex) {
-        if (graph == null) {
-            throw new IllegalArgumentException("Graph cannot be null");
+    /**
+     * Returns the algorithm that computed the last all-pairs result, with {@link AllPairsStrategy#AUTO} resolved,
+     * or null if none was computed yet.
+     */
+    public AllPairsStrategy getLastAllPairsStrategy() {
+        return lastAllPairsStrategy;
+    }
+
+    public SingleSourceStrategy getSingleSourceStrategy() {
+        return singleSourceStrategy;
+    }
+
+    /**
+     * Selects the algorithm used for full single-source shortest path trees.
+     */
+    public void setSingleSourceStrategy(SingleSourceStrategy singleSourceStrategy) {
+        if (singleSourceStrategy == null) {
+            throw new IllegalArgumentException("Single-source strategy cannot be null");
         }
-        Queue<Integer> vertexes = new Queue<>();
+        this.singleSourceStrategy = singleSourceStrategy;
+    }
 
-        return searchResult(graph, startVertex,vertexes);
+    public int getDeltaSteppingDelta() {
+        return deltaSteppingDelta;
     }
 
-    private List<Integer> searchResult(Graph graph, int startVertex, Collection<Integer> vertexes) {
-        Set<Integer> placed = new HashSet<>();
-        List<Integer> result = new ArrayList<>();
+    /**
+     * Sets the bucket width of delta-stepping, or 0 to derive it from the edge weights of each graph.
+     */
+    public void setDeltaSteppingDelta(int deltaSteppingDelta) {
+        if (deltaSteppingDelta < 0) {
+            throw new IllegalArgumentException("Delta cannot be negative: " + deltaSteppingDelta);
+        }
+        this.deltaSteppingDelta = deltaSteppingDelta;
+    }
 
-        vertexes.push(startVertex);
+    public SpanningTreeStrategy getSpanningTreeStrategy() {
+        return spanningTreeStrategy;
+    }
 
+    /**
+     * Selects the algorithm used for minimum spanning trees.
+     */
+    public void setSpanningTreeStrategy(SpanningTreeStrategy spanningTreeStrategy) {
+        if (spanningTreeStrategy == null) {
+            throw new IllegalArgumentException("Spanning tree strategy cannot be null");
+        }
+        this.spanningTreeStrategy = spanningTreeStrategy;
+    }
 
-        while(!vertexes.isEmpty()) {
-            int currentVertex = vertexes.pop();
-            if(placed.contains(currentVertex)) {
-                continue;
-            }
+    public ResultCache getResultCache() {
+        return resultCache;
+    }
 
-            placed.add(currentVertex);
-            result.add(currentVertex);
-            List<Integer> vertexChildren = graph.getAdjacentVertices(currentVertex);
+    /**
+     * Sets the cache consulted before computing all-pairs distances, spanning trees and salesman routes,
+     * or null to always compute them.
+     */
+    public void setResultCache(ResultCache resultCache) {
+        this.resultCache = resultCache;
+    }
 
-            for(Integer vertexChild : vertexChildren) {
-                if(!placed.contains(vertexChild)) {
-                    vertexes.push(vertexChild);
-                }
-            }
+    public DistanceTreeCache getDistanceTreeCache() {
+        return distanceTreeCache;
+    }
+
+    /**
+     * Sets the cache of shortest path trees. With a cache, every point-to-point query computes or reuses
+     * the whole tree of its source, which pays off when a few sources account for most queries;
+     * null returns to searches that stop at the target.
+     */
+    public void setDistanceTreeCache(DistanceTreeCache distanceTreeCache) {
+        this.distanceTreeCache = distanceTreeCache;
+    }
+
+    /**
+     * Returns the landmark table used in {@link ShortestPathMode#LANDMARKS} mode, or null if none was built yet.
+     */
+    public synchronized LandmarkTable getLandmarkTable() {
+        return landmarkSearch == null ? null : landmarkSearch.getLandmarks();
+    }
+
+    /**
+     * Sets a prebuilt or loaded landmark table for {@link ShortestPathMode#LANDMARKS} mode.
+     * Queries on any other graph replace it with a table built with the default number of landmarks.
+     */
+    public synchronized void setLandmarkTable(LandmarkTable landmarkTable) {
+        if (landmarkTable == null) {
+            throw new IllegalArgumentException("Landmark table cannot be null");
         }
-        return result;
+        landmarkSearch = new LandmarkSearch(landmarkTable);
+    }
+
+    /**
+     * Returns the hierarchy used in {@link ShortestPathMode#CONTRACTION} mode, or null if none was built yet.
+     */
+    public synchronized ContractionHierarchy getContractionHierarchy() {
+        return hierarchySearch == null ? null : hierarchySearch.getHierarchy();
+    }
+
+    /**
+     * Sets a prebuilt or loaded contraction hierarchy for {@link ShortestPathMode#CONTRACTION} mode.
+     * Queries on any other graph replace it with a newly built one.
+     */
+    public synchronized void setContractionHierarchy(ContractionHierarchy contractionHierarchy) {
+        if (contractionHierarchy == null) {
+            throw new IllegalArgumentException("Contraction hierarchy cannot be null");
+        }
+        hierarchySearch = new HierarchySearch(contractionHierarchy);
     }
 
     @Override
-    public int getShortestPathBetweenVertices(Graph graph, int vertex1, int vertex2) {
-        int vertexCount = graph.getVertexCount();
+    public List<Integer> depthFirstSearch(Graph graph, int startVertex) {
+        TraversalEngine engine = new TraversalEngine(graph);
+        return toList(engine.getOrder(), engine.depthFirstSearch(startVertex));
+    }
 
-        if (vertex1 < 0 || vertex1 >= vertexCount || vertex2 < 0 || vertex2 >= vertexCount) {
-            throw new IllegalArgumentException("Invalid vertex index");
+    @Override
+    public List<Integer> breadthFirstSearch(Graph graph, int startVertex) {
+        TraversalEngine engine = new TraversalEngine(graph);
+        return toList(engine.getOrder(), engine.breadthFirstSearch(startVertex));
+    }
+
+    /**
+     * Computes hop counts from the start vertex with a level-synchronous parallel BFS
+     * on the common fork/join pool.
+     *
+     * @return the number of edges on the shortest hop path to every vertex, or -1 if it is unreachable
+     */
+    @Override
+    public int[] parallelBreadthFirstSearch(Graph graph, int startVertex) {
+        if (graph == null) {
+            throw new IllegalArgumentException("Graph cannot be null");
+        }
+        if (startVertex < 0 || startVertex >= graph.getVertexCount()) {
+            throw new IllegalArgumentException("Invalid vertex index: " + startVertex);
+        }
+        return ParallelBreadthFirstSearch.levels(graph, startVertex, ForkJoinPool.commonPool());
+    }
+
+    private List<Integer> toList(int[] vertices, int count) {
+        List<Integer> result = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            result.add(vertices[i]);
         }
+        return result;
+    }
 
+    @Override
+    public int getShortestPathBetweenVertices(Graph graph, int vertex1, int vertex2) {
+        checkVertices(graph, vertex1, vertex2);
         if (vertex1 == vertex2) {
             return 0;
         }
+        int distance = distanceTreeCache != null
+                ? getDistanceTree(graph, vertex1).distance(vertex2)
+                : pointToPointSearch(graph).distance(QueryWorkspace.forCurrentThread(graph), vertex1, vertex2);
+        if (distance == PointToPointSearch.UNREACHABLE) {
+            throw new IllegalArgumentException("No path exists between vertex " + vertex1 + " and vertex " + vertex2);
+        }
+        return distance;
+    }
 
-        int[] distancesToVertex = new int[vertexCount];
-        Arrays.fill(distancesToVertex, Integer.MAX_VALUE);
-        distancesToVertex[vertex1] = 0;
-        boolean[] visitedVertex = new boolean[vertexCount];
+    @Override
+    public ShortestPath getShortestRouteBetweenVertices(Graph graph, int vertex1, int vertex2) {
+        checkVertices(graph, vertex1, vertex2);
+        if (vertex1 == vertex2) {
+            return new ShortestPath(new int[]{vertex1}, 0);
+        }
+        if (distanceTreeCache != null) {
+            DistanceTree tree = getDistanceTree(graph, vertex1);
+            return new ShortestPath(tree.route(vertex2), tree.distance(vertex2));
+        }
+        PointToPointSearch search = pointToPointSearch(graph);
+        QueryWorkspace workspace = QueryWorkspace.forCurrentThread(graph);
+        int distance = search.distance(workspace, vertex1, vertex2);
+        if (distance == PointToPointSearch.UNREACHABLE) {
+            throw new IllegalArgumentException("No path exists between vertex " + vertex1 + " and vertex " + vertex2);
+        }
+        return new ShortestPath(search.route(workspace, vertex1, vertex2), distance);
+    }
 
-        for (int i = 0; i < vertexCount; i++) {
-            int minDistance = Integer.MAX_VALUE;
-            int minVertex = -1;
+    /**
+     * Returns the shortest path tree of the source, computed with the selected {@link SingleSourceStrategy}
+     * or taken from the tree cache if one is set.
+     */
+    @Override
+    public DistanceTree getDistanceTree(Graph graph, int source) {
+        checkVertices(graph, source, source);
+        DistanceTreeCache cache = distanceTreeCache;
+        if (cache == null) {
+            return computeDistanceTree(graph, source);
+        }
+        return cache.get(graph, source, from -> computeDistanceTree(graph, from));
+    }
 
-            for (int j = 0; j < vertexCount; j++) {
-                if (!visitedVertex[j] && distancesToVertex[j] < minDistance) {
-                    minDistance = distancesToVertex[j];
-                    minVertex = j;
-                }
+    private DistanceTree computeDistanceTree(Graph graph, int source) {
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+        SingleSourceStrategy strategy = singleSourceStrategy;
+        if (strategy == SingleSourceStrategy.AUTO) {
+            if (pool.getParallelism() > 1 && graph.getEdgeCount() >= MIN_PARALLEL_TREE_EDGES) {
+                strategy = SingleSourceStrategy.DELTA_STEPPING;
+            } else {
+                strategy = prefersDial(graph) ? SingleSourceStrategy.DIAL : SingleSourceStrategy.DIJKSTRA;
             }
+        }
+        if (strategy == SingleSourceStrategy.DELTA_STEPPING) {
+            int delta = deltaSteppingDelta > 0 ? deltaSteppingDelta : DeltaSteppingSearch.defaultDelta(graph);
+            return DeltaSteppingSearch.tree(graph, source, delta, pool);
+        }
+        QueryWorkspace workspace = QueryWorkspace.forCurrentThread(graph);
+        if (strategy == SingleSourceStrategy.DIAL) {
+            DialSearch.INSTANCE.run(workspace, source, -1);
+        } else {
+            DijkstraSearch.INSTANCE.run(workspace, source, -1);
+        }
+        return DistanceTree.of(workspace, source);
+    }
 
-            // Если граф несвязный
-            if (minVertex == -1) {
-                break;
-            }
-            // Выходим, если обработали нужную вершину
-            if (minVertex == vertex2) {
-                break;
-            }
+    private void checkVertices(Graph graph, int vertex1, int vertex2) {
+        int vertexCount = graph.getVertexCount();
+        if (vertex1 < 0 || vertex1 >= vertexCount || vertex2 < 0 || vertex2 >= vertexCount) {
+            throw new IllegalArgumentException("Invalid vertex index");
+        }
+    }
 
-            visitedVertex[minVertex] = true;
-
-            for (int j = 0; j < vertexCount; j++) {
-                if (j != minVertex && !visitedVertex[j] && graph.hasEdge(minVertex, j)) {
-                    int edgeWeight = graph.getEdgeWeight(minVertex, j);
-                    if (edgeWeight > 0 && distancesToVertex[minVertex] != Integer.MAX_VALUE) {
-                        int newDistance = distancesToVertex[minVertex] + edgeWeight;
-                        if (newDistance < distancesToVertex[j]) {
-                            distancesToVertex[j] = newDistance;
-                        }
-                    }
-                }
+    private PointToPointSearch pointToPointSearch(Graph graph) {
+        ShortestPathMode mode = shortestPathMode;
+        if (mode == ShortestPathMode.AUTO) {
+            if (prefersDial(graph)) {
+                mode = ShortestPathMode.DIAL;
+            } else {
+                mode = graph.isCompressed() ? ShortestPathMode.HEAP : ShortestPathMode.DENSE_SCAN;
             }
         }
-        if (distancesToVertex[vertex2] == Integer.MAX_VALUE) {
-            throw new IllegalArgumentException("No path exists between vertex " + vertex1 + " and vertex " + vertex2);
+        return switch (mode) {
+            case HEAP -> DijkstraSearch.INSTANCE;
+            case DIAL -> DialSearch.INSTANCE;
+            case BIDIRECTIONAL -> BidirectionalDijkstraSearch.INSTANCE;
+            case LANDMARKS -> landmarkSearch(graph);
+            case CONTRACTION -> hierarchySearch(graph);
+            default -> DenseScanSearch.INSTANCE;
+        };
+    }
+
+    /**
+     * Checks the load-time weight statistics for a range small enough for a bucket queue.
+     */
+    private boolean prefersDial(Graph graph) {
+        return graph.getMinEdgeWeight() > 0 && graph.getMaxEdgeWeight() <= DIAL_MAX_WEIGHT;
+    }
+
+    private synchronized LandmarkSearch landmarkSearch(Graph graph) {
+        if (landmarkSearch == null || !landmarkSearch.getLandmarks().isFor(graph)) {
+            landmarkSearch = new LandmarkSearch(LandmarkTable.build(graph, LandmarkTable.DEFAULT_LANDMARK_COUNT));
         }
-        return distancesToVertex[vertex2];
+        return landmarkSearch;
     }
 
-    @Override
-    public int[][] getShortestPathsBetweenAllVertices(Graph graph) {
-        int vertexCount = graph.getVertexCount();
-        int[][] distanceMatrix = new int[vertexCount][vertexCount];
-
-        // Инициализация матрицы расстояний
-        for (int i = 0; i < vertexCount; i++) {
-            for (int j = 0; j < vertexCount; j++) {
-                if (i == j) {
-                    distanceMatrix[i][j] = 0;
-                } else if (graph.hasEdge(i, j)) {
-                    distanceMatrix[i][j] = getShortestPathBetweenVertices(graph, i, j);
-                } else {
-                    distanceMatrix[i][j] = Integer.MAX_VALUE;
-                }
-            }
+    private synchronized HierarchySearch hierarchySearch(Graph graph) {
+        if (hierarchySearch == null || !hierarchySearch.getHierarchy().isFor(graph)) {
+            hierarchySearch = new HierarchySearch(ContractionHierarchy.build(graph));
         }
+        return hierarchySearch;
+    }
 
-        // Алгоритм Флойда-Уоршелла
-        for (int k = 0; k < vertexCount; k++) {
-            for (int i = 0; i < vertexCount; i++) {
-                for (int j = 0; j < vertexCount; j++) {
-                    if (distanceMatrix[i][k] != Integer.MAX_VALUE && distanceMatrix[k][j] != Integer.MAX_VALUE) {
-                        distanceMatrix[i][j] = Math.min(distanceMatrix[i][j], distanceMatrix[i][k] + distanceMatrix[k][j]);
-                    }
-                }
-            }
+    @Override
+    public int[][] getShortestPathsBetweenAllVertices(Graph graph) {
+        int[][] distanceMatrix;
+        try (DistanceMatrix matrix = getDistanceMatrix(graph)) {
+            distanceMatrix = matrix.toArray();
         }
         // Проверка на связный граф
-        for (int i = 0; i < vertexCount; i++) {
-            for (int j = 0; j < vertexCount; j++) {
-                if (distanceMatrix[i][j] == Integer.MAX_VALUE) {
+        for (int i = 0; i < distanceMatrix.length; i++) {
+            for (int j = 0; j < distanceMatrix.length; j++) {
+                if (distanceMatrix[i][j] == DistanceMatrix.UNREACHABLE) {
                     throw new IllegalArgumentException("No path exists between vertex " + i + " and vertex " + j);
                 }
             }
         }
-
         return distanceMatrix;
     }
 
     @Override
-    public int[][] getLeastSpanningTree(Graph graph) {
-
-        int[][] leastSpanningTree = null;
-        int leastTreeWeight = Integer.MAX_VALUE;
-        int vertexCount = graph.getVertexCount();
-
-        for (int start = 0; start < vertexCount; start++) {
-            int[][] spanningTree = new int[vertexCount][vertexCount];
-            PriorityQueue<Edge> edges = new PriorityQueue<>();
-            boolean[] visited = new boolean[vertexCount];
-            addVertex(edges, visited, graph, start);
-
-            int treeWeight = 0;
-            while (true) {
-                Edge edge;
-                do {
-                    edge = edges.poll();
-                } while (edge != null && visited[edge.vertex2()]);
-                if (edge == null) break;
-                spanningTree[edge.vertex1()][edge.vertex2()] = edge.weight();
-                spanningTree[edge.vertex2()][edge.vertex1()] = edge.weight();
-                treeWeight += edge.weight();
-                addVertex(edges, visited, graph, edge.vertex2());
+    public DistanceMatrix getDistanceMatrix(Graph graph) {
+        ResultCache cache = resultCache;
+        try {
+            if (cache == null) {
+                return computeDistanceMatrix(graph, null);
             }
-            if (allVisited(visited)) {
-                if (treeWeight < leastTreeWeight) {
-                    leastTreeWeight = treeWeight;
-                    leastSpanningTree = spanningTree;
-                }
+            // The distances do not depend on the strategy, so it is not part of the key
+            String key = ResultCache.key(graph, "distance-matrix", "");
+            DistanceMatrix matrix = cache.findDistanceMatrix(key, graph);
+            if (matrix == null) {
+                matrix = computeDistanceMatrix(graph, cache.path(key));
+                cache.added(key);
             }
+            return matrix;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
         }
-        return leastSpanningTree;
     }
 
-    private void addVertex(PriorityQueue<Edge> edges, boolean[] visited, Graph graph, int vertex) {
-        visited[vertex] = true;
+    /**
+     * Computes the shortest distances between all vertices into a memory-mapped file,
+     * which can be opened again with {@link DistanceMatrix#open}.
+     *
+     * @param graph the graph
+     * @param filename the path to the matrix file
+     * @return the matrix mapped from the file
+     * @throws IOException if the file cannot be written
+     */
+    public DistanceMatrix getDistanceMatrix(Graph graph, String filename) throws IOException {
+        return computeDistanceMatrix(graph, Path.of(filename));
+    }
 
-        for (int i = 0; i < graph.getVertexCount(); i++) {
-            if (visited[i]) continue;
-            int weight = graph.getEdgeWeight(vertex, i);
-            if (weight != 0) {
-                edges.add(new Edge(vertex, i, weight));
-            }
+    private DistanceMatrix computeDistanceMatrix(Graph graph, Path file) throws IOException {
+        int vertexCount = graph.getVertexCount();
+        AllPairsStrategy strategy = allPairsStrategy;
+        if (strategy == AllPairsStrategy.AUTO) {
+            // Floyd–Warshall works on the whole matrix on the heap, Dijkstra produces it a block of rows at a time
+            boolean fitsHeap = (long) vertexCount * vertexCount * Integer.BYTES
+                    <= Runtime.getRuntime().maxMemory() / FLOYD_WARSHALL_HEAP_SHARE;
+            strategy = !fitsHeap || prefersDijkstra(graph)
+                    ? AllPairsStrategy.PARALLEL_DIJKSTRA : AllPairsStrategy.FLOYD_WARSHALL;
+        }
+        lastAllPairsStrategy = strategy;
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+        if (strategy == AllPairsStrategy.PARALLEL_DIJKSTRA) {
+            // Rows are computed block by block, so the whole matrix never exists on the heap
+            return DistanceMatrix.build(vertexCount, graph.getFingerprint(), file, (from, to, block) ->
+                    ParallelDijkstraAllPairs.distances(graph, pool, from, to, block));
         }
+        int[] distances = FloydWarshall.distances(graph, pool);
+        return DistanceMatrix.build(vertexCount, graph.getFingerprint(), file, (from, to, block) ->
+                System.arraycopy(distances, from * vertexCount, block, 0, (to - from) * vertexCount));
     }
 
-    private boolean allVisited(boolean[] visited) {
-        for (boolean v : visited) {
-            if (!v) return false;
-        }
-        return true;
+    /**
+     * Compares the estimated costs: V^3 matrix updates for Floyd–Warshall against
+     * V (E + V) log V heap steps for Dijkstra from every source.
+     */
+    private boolean prefersDijkstra(Graph graph) {
+        double vertexCount = graph.getVertexCount();
+        double dijkstraCost = DIJKSTRA_STEP_COST * vertexCount * (graph.getEdgeCount() + vertexCount)
+                * Math.max(1, Math.log(vertexCount) / Math.log(2));
+        double updateCost = FloydWarshall.defaultKernel() == ScalarRelaxKernel.INSTANCE ? 1 : VECTOR_UPDATE_COST;
+        return dijkstraCost < updateCost * vertexCount * vertexCount * vertexCount;
     }
 
+    /**
+     * Finds a minimum spanning tree with {@link #getLeastSpanningForest} and converts it to a matrix.
+     *
+     * @return the symmetric adjacency matrix of the tree, or null if the graph is not connected
+     */
     @Override
-    public TsmResult solveTravelingSalesmanProblem(Graph graph) {
-        final double Q = graph.getMinEdgeWeight();
-        int vertexCount = graph.getVertexCount();
-        TspEdge[][] edges = new TspEdge[vertexCount][vertexCount];
-        for (int i = 0; i < vertexCount; i++) {
-            for (int j = 0; j < vertexCount; j++) {
-                if (graph.hasEdge(i, j))
-                    edges[i][j] = new TspEdge(Q / graph.getEdgeWeight(i, j), INIT_PHEROMONES);
-                else edges[i][j] = new TspEdge();
+    public int[][] getLeastSpanningTree(Graph graph) {
+        SpanningForest forest = getLeastSpanningForest(graph);
+        return forest.isTree() ? forest.toAdjacencyMatrix() : null;
+    }
+
+    /**
+     * Finds a minimum spanning forest with the selected {@link SpanningTreeStrategy}, one tree per connected
+     * component. Directed graphs are spanned as undirected ones: two vertices are joined by the lighter
+     * of the edges between them in either direction.
+     */
+    @Override
+    public SpanningForest getLeastSpanningForest(Graph graph) {
+        SpanningTreeStrategy strategy = resolveSpanningTreeStrategy(graph);
+        ResultCache cache = resultCache;
+        if (cache == null) {
+            return computeLeastSpanningForest(graph, strategy);
+        }
+        try {
+            String key = ResultCache.key(graph, "spanning-forest", strategy.name().toLowerCase(Locale.ROOT));
+            SpanningForest cached = cache.findRows(key, graph, rows -> decodeSpanningForest(graph, rows));
+            if (cached != null) {
+                return cached;
             }
+            SpanningForest forest = computeLeastSpanningForest(graph, strategy);
+            int[][] edges = {forest.getSources(), forest.getTargets(), forest.getWeights()};
+            cache.putRows(key, graph, edges, forest.getComponentCount());
+            return forest;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
         }
+    }
 
-        int iterationsNum = vertexCount * ITERATIONS_PER_VERTEX;
-        Ant bestAnt = null;
-        int lastImprove = 0;
-        for (int i = 0; i < iterationsNum; i++) {
-            if (i - lastImprove > Math.max(MAX_STAGNATION - vertexCount * VERTEX_PENALTY, MIN_STAGNATION))
-                break;
-            List<Ant> ants = antsMoveFromEachVertex(graph, edges);
-            if (ants.isEmpty()) continue;
-            addPheromonesOnEdges(ants, edges, Q);
-            if (bestAnt == null)
-                bestAnt = ants.getFirst();
-            for (Ant ant : ants) {
-                if (ant.getDistance() < bestAnt.getDistance()) {
-                    bestAnt = ant;
-                    lastImprove = i;
+    /**
+     * Rebuilds a cached forest, rejecting rows that do not describe a forest of the graph.
+     */
+    private static SpanningForest decodeSpanningForest(Graph graph, ResultCache.Rows rows) {
+        int[][] edges = rows.rows();
+        if (edges == null || edges.length != 3) {
+            throw new IllegalArgumentException("Not a spanning forest entry");
+        }
+        for (int i = 0; i < 2; i++) {
+            for (int vertex : edges[i]) {
+                if (vertex < 0 || vertex >= graph.getVertexCount()) {
+                    throw new IllegalArgumentException("Invalid vertex index: " + vertex);
                 }
             }
         }
-        if (bestAnt == null) return null;
-        return new TsmResult(bestAnt.getRoute().stream().mapToInt(Integer::intValue).toArray(), bestAnt.getDistance());
+        return new SpanningForest(graph.getVertexCount(), edges[0], edges[1], edges[2], (int) rows.value());
     }
 
-    private List<Ant> antsMoveFromEachVertex(Graph graph, TspEdge[][] edges) {
-        List<Ant> ants = new ArrayList<>();
-        int vertexCount = graph.getVertexCount();
+    private SpanningTreeStrategy resolveSpanningTreeStrategy(Graph graph) {
+        if (spanningTreeStrategy != SpanningTreeStrategy.AUTO) {
+            return spanningTreeStrategy;
+        }
+        boolean parallel = ForkJoinPool.commonPool().getParallelism() > 1
+                && graph.getEdgeCount() >= MIN_PARALLEL_SPANNING_EDGES;
+        return parallel ? SpanningTreeStrategy.PARALLEL_BORUVKA : SpanningTreeStrategy.KRUSKAL;
+    }
 
-        for (int start = 0; start < graph.getVertexCount(); start++) {
-            int currVertex = start;
-            Ant ant = new Ant();
-            ant.getRoute().add(currVertex);
-            boolean allVisited = ant.allVisited(vertexCount);
-            boolean notSolvable = false;
-            while (!allVisited || ant.getRoute().getLast() != start) {
-                if (ant.routeLength() > vertexCount * 2) {
-                    notSolvable = true;
-                    break;
-                }
-                allVisited = ant.allVisited(vertexCount);
-                double desireSum = 0;
-                double[] desireArray = new double[vertexCount];
-                for (int i = 0; i < vertexCount; i++) {
-                    if (i == currVertex) continue;
-                    if (!ant.getRoute().contains(i) || (allVisited && i == start))
-                        desireArray[i] = edges[currVertex][i].getDesire();
-                    else desireArray[i] = edges[currVertex][i].getDesire() / DESIRE_REDUCTION;
-                    desireSum += desireArray[i];
-                }
-                if (desireSum == 0) {
-                    notSolvable = true;
-                    break;
-                }
-                double randomChoice = random.nextDouble();
-                for (int i = 0; i < vertexCount; i++) {
-                    randomChoice -= desireArray[i] / desireSum;
-                    if (randomChoice < 0) {
-                        ant.getRoute().add(i);
-                        ant.addDistance(graph.getEdgeWeight(currVertex, i));
-                        currVertex = i;
-                        break;
-                    }
-                }
-            }
-            if (!notSolvable)
-                ants.add(ant);
+    private SpanningForest computeLeastSpanningForest(Graph graph, SpanningTreeStrategy strategy) {
+        if (strategy == SpanningTreeStrategy.PARALLEL_BORUVKA) {
+            return ParallelBoruvkaSpanningForest.compute(graph, ForkJoinPool.commonPool());
         }
-        return ants;
+        return KruskalSpanningForest.compute(graph);
     }
 
-    private void addPheromonesOnEdges(List<Ant> ants, TspEdge[][] edges, final double Q) {
-        for (Ant ant : ants) {
-            List<Integer> route = ant.getRoute();
-            for (int i = 0; i < route.size() - 1; i++) {
-                edges[route.get(i)][route.get(i + 1)].addPheromones(Q / ant.getDistance());
+    /**
+     * Solves the problem with the ant colony algorithm. With a result cache, the route found first
+     * for the same graph is returned again.
+     */
+    @Override
+    public TsmResult solveTravelingSalesmanProblem(Graph graph) {
+        ResultCache cache = resultCache;
+        if (cache == null) {
+            return AntColonyTsp.solve(graph);
+        }
+        try {
+            String key = ResultCache.key(graph, "traveling-salesman", AntColonyTsp.PARAMETERS);
+            ResultCache.Rows cached = cache.findRows(key, graph, rows -> {
+                if (rows.rows() != null && rows.rows().length != 1) {
+                    throw new IllegalArgumentException("Not a salesman route entry");
+                }
+                return rows;
+            });
+            if (cached != null) {
+                return cached.rows() == null ? null : new TsmResult(cached.rows()[0], cached.value());
             }
+            TsmResult result = AntColonyTsp.solve(graph);
+            cache.putRows(key, graph, result == null ? null : new int[][]{result.getVertices()},
+                    result == null ? 0 : result.getDistance());
+            return result;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
         }
     }
 }
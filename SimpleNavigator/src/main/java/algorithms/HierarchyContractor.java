@@ -0,0 +1,266 @@
+package algorithms;
+
+import graph.Graph;
+import graph.NeighborCursor;
+
+import java.util.Arrays;
+
+/**
+ * Builds a contraction hierarchy: contracts vertices one by one in order of edge difference,
+ * adding a shortcut between two neighbors of the contracted vertex whenever the path through it
+ * is the only shortest one left among the remaining vertices.
+ * <p>
+ * The priority of a vertex is the number of shortcuts its contraction would add, minus the number of
+ * its remaining edges, plus the number of its already contracted neighbors, which spreads the
+ * contraction evenly over the graph. Priorities are updated lazily: a vertex taken from the queue
+ * is contracted only if its recomputed priority is still the smallest.
+ */
+final class HierarchyContractor {
+    /** Witness searches stop after settling this many vertices; a missed witness only costs an extra shortcut */
+    private static final int WITNESS_SETTLE_LIMIT = 256;
+    private static final int SIMULATION_SETTLE_LIMIT = 32;
+
+    private final int vertexCount;
+    private final EdgeList[] outgoing;
+    private final EdgeList[] incoming;
+    private final EdgeList[] upward;
+    private final EdgeList[] downward;
+    private final int[] contractedNeighbors;
+    private final int[] ranks;
+
+    private final int[] witnessDistances;
+    private final int[] witnessStamps;
+    private final IndexedDaryHeap witnessHeap;
+    private int witnessEpoch;
+
+    private HierarchyContractor(Graph graph) {
+        vertexCount = graph.getVertexCount();
+        outgoing = newEdgeLists(vertexCount);
+        incoming = newEdgeLists(vertexCount);
+        upward = newEdgeLists(vertexCount);
+        downward = newEdgeLists(vertexCount);
+        contractedNeighbors = new int[vertexCount];
+        ranks = new int[vertexCount];
+        witnessDistances = new int[vertexCount];
+        witnessStamps = new int[vertexCount];
+        witnessHeap = new IndexedDaryHeap(vertexCount);
+
+        NeighborCursor neighbors = graph.newNeighborCursor();
+        for (int vertex = 0; vertex < vertexCount; vertex++) {
+            neighbors.reset(vertex);
+            while (neighbors.next()) {
+                int target = neighbors.target();
+                int weight = neighbors.weight();
+                if (weight > 0 && target != vertex) {
+                    outgoing[vertex].put(target, weight, -1);
+                    incoming[target].put(vertex, weight, -1);
+                }
+            }
+        }
+    }
+
+    /**
+     * Contracts every vertex of the graph and returns the resulting hierarchy.
+     */
+    static ContractionHierarchy contract(Graph graph) {
+        return new HierarchyContractor(graph).run(graph);
+    }
+
+    private ContractionHierarchy run(Graph graph) {
+        IndexedDaryHeap queue = new IndexedDaryHeap(vertexCount);
+        for (int vertex = 0; vertex < vertexCount; vertex++) {
+            queue.insertOrDecrease(vertex, priority(vertex));
+        }
+        int rank = 0;
+        while (!queue.isEmpty()) {
+            int vertex = queue.pollMin();
+            int priority = priority(vertex);
+            if (!queue.isEmpty() && priority > queue.minKey()) {
+                queue.insertOrDecrease(vertex, priority);
+                continue;
+            }
+            ranks[vertex] = rank++;
+            contractVertex(vertex);
+        }
+        return new ContractionHierarchy(graph, ranks, compress(upward), compress(downward));
+    }
+
+    private int priority(int vertex) {
+        int shortcuts = addShortcuts(vertex, SIMULATION_SETTLE_LIMIT, true);
+        return shortcuts - outgoing[vertex].size - incoming[vertex].size + contractedNeighbors[vertex];
+    }
+
+    /**
+     * Moves the remaining edges of the vertex into the search graphs, adds the shortcuts
+     * that replace it and removes it from the remaining graph.
+     */
+    private void contractVertex(int vertex) {
+        EdgeList out = outgoing[vertex];
+        EdgeList in = incoming[vertex];
+        for (int i = 0; i < out.size; i++) {
+            upward[vertex].put(out.targets[i], out.weights[i], out.middles[i]);
+        }
+        for (int i = 0; i < in.size; i++) {
+            downward[vertex].put(in.targets[i], in.weights[i], in.middles[i]);
+        }
+        addShortcuts(vertex, WITNESS_SETTLE_LIMIT, false);
+
+        for (int i = 0; i < out.size; i++) {
+            int target = out.targets[i];
+            incoming[target].remove(vertex);
+            contractedNeighbors[target]++;
+        }
+        for (int i = 0; i < in.size; i++) {
+            int source = in.targets[i];
+            outgoing[source].remove(vertex);
+            contractedNeighbors[source]++;
+        }
+        outgoing[vertex] = null;
+        incoming[vertex] = null;
+    }
+
+    /**
+     * Counts, and unless simulating adds, the shortcuts needed to contract the vertex.
+     */
+    private int addShortcuts(int vertex, int settleLimit, boolean simulate) {
+        EdgeList out = outgoing[vertex];
+        EdgeList in = incoming[vertex];
+        int shortcuts = 0;
+        for (int i = 0; i < in.size; i++) {
+            int source = in.targets[i];
+            int inWeight = in.weights[i];
+            int maxOutWeight = -1;
+            for (int j = 0; j < out.size; j++) {
+                if (out.targets[j] != source) {
+                    maxOutWeight = Math.max(maxOutWeight, out.weights[j]);
+                }
+            }
+            if (maxOutWeight < 0) {
+                continue;
+            }
+            witnessSearch(source, vertex, (long) inWeight + maxOutWeight, settleLimit);
+
+            for (int j = 0; j < out.size; j++) {
+                int target = out.targets[j];
+                long weight = (long) inWeight + out.weights[j];
+                if (target == source || weight >= Integer.MAX_VALUE || witnessDistance(target) <= weight) {
+                    continue;
+                }
+                shortcuts++;
+                if (!simulate) {
+                    outgoing[source].put(target, (int) weight, vertex);
+                    incoming[target].put(source, (int) weight, vertex);
+                }
+            }
+        }
+        return shortcuts;
+    }
+
+    /**
+     * Runs Dijkstra's algorithm from the source over the remaining graph without the excluded vertex,
+     * stopping at the distance limit or after settling the given number of vertices.
+     */
+    private void witnessSearch(int source, int excluded, long maxDistance, int settleLimit) {
+        if (++witnessEpoch == Integer.MAX_VALUE) {
+            Arrays.fill(witnessStamps, 0);
+            witnessEpoch = 1;
+        }
+        witnessHeap.clear();
+        witnessStamps[source] = witnessEpoch;
+        witnessDistances[source] = 0;
+        witnessHeap.insertOrDecrease(source, 0);
+
+        int settled = 0;
+        while (!witnessHeap.isEmpty() && witnessHeap.minKey() <= maxDistance && settled++ < settleLimit) {
+            int current = witnessHeap.pollMin();
+            int distance = witnessDistances[current];
+            EdgeList edges = outgoing[current];
+            for (int i = 0; i < edges.size; i++) {
+                int target = edges.targets[i];
+                if (target == excluded) {
+                    continue;
+                }
+                long candidate = (long) distance + edges.weights[i];
+                if (candidate < witnessDistance(target)) {
+                    witnessStamps[target] = witnessEpoch;
+                    witnessDistances[target] = (int) candidate;
+                    witnessHeap.insertOrDecrease(target, (int) candidate);
+                }
+            }
+        }
+    }
+
+    private int witnessDistance(int vertex) {
+        return witnessStamps[vertex] == witnessEpoch ? witnessDistances[vertex] : Integer.MAX_VALUE;
+    }
+
+    private static ContractionHierarchy.Edges compress(EdgeList[] lists) {
+        int[] offsets = new int[lists.length + 1];
+        for (int i = 0; i < lists.length; i++) {
+            offsets[i + 1] = offsets[i] + lists[i].size;
+        }
+        int[] targets = new int[offsets[lists.length]];
+        int[] weights = new int[targets.length];
+        int[] middles = new int[targets.length];
+        for (int i = 0; i < lists.length; i++) {
+            EdgeList list = lists[i];
+            System.arraycopy(list.targets, 0, targets, offsets[i], list.size);
+            System.arraycopy(list.weights, 0, weights, offsets[i], list.size);
+            System.arraycopy(list.middles, 0, middles, offsets[i], list.size);
+            lists[i] = null;
+        }
+        return new ContractionHierarchy.Edges(offsets, targets, weights, middles);
+    }
+
+    private static EdgeList[] newEdgeLists(int count) {
+        EdgeList[] lists = new EdgeList[count];
+        for (int i = 0; i < count; i++) {
+            lists[i] = new EdgeList();
+        }
+        return lists;
+    }
+
+    /**
+     * Growable list of edges of one vertex with the shortcut middle vertex, or -1 for original edges.
+     * Holds at most one edge per neighbor, the lightest.
+     */
+    static final class EdgeList {
+        int[] targets = new int[4];
+        int[] weights = new int[4];
+        int[] middles = new int[4];
+        int size;
+
+        void put(int target, int weight, int middle) {
+            for (int i = 0; i < size; i++) {
+                if (targets[i] == target) {
+                    if (weight < weights[i]) {
+                        weights[i] = weight;
+                        middles[i] = middle;
+                    }
+                    return;
+                }
+            }
+            if (size == targets.length) {
+                targets = Arrays.copyOf(targets, size * 2);
+                weights = Arrays.copyOf(weights, size * 2);
+                middles = Arrays.copyOf(middles, size * 2);
+            }
+            targets[size] = target;
+            weights[size] = weight;
+            middles[size] = middle;
+            size++;
+        }
+
+        void remove(int target) {
+            for (int i = 0; i < size; i++) {
+                if (targets[i] == target) {
+                    size--;
+                    targets[i] = targets[size];
+                    weights[i] = weights[size];
+                    middles[i] = middles[size];
+                    return;
+                }
+            }
+        }
+    }
+}
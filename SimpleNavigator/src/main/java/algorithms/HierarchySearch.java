@@ -0,0 +1,118 @@
+package algorithms;
+
+import java.util.Arrays;
+
+/**
+ * Bidirectional Dijkstra's algorithm over a contraction hierarchy. The forward search follows
+ * upward edges from the source, the backward search follows downward edges from the target,
+ * and each side stops once its queue head is no shorter than the best meeting found.
+ */
+final class HierarchySearch implements PointToPointSearch {
+    private final ContractionHierarchy hierarchy;
+
+    HierarchySearch(ContractionHierarchy hierarchy) {
+        this.hierarchy = hierarchy;
+    }
+
+    ContractionHierarchy getHierarchy() {
+        return hierarchy;
+    }
+
+    @Override
+    public int distance(QueryWorkspace forward, int source, int target) {
+        QueryWorkspace backward = QueryWorkspace.backwardForCurrentThread(forward.graph());
+        IndexedDaryHeap forwardHeap = forward.heap();
+        IndexedDaryHeap backwardHeap = backward.heap();
+        forward.reach(source, 0, source);
+        forwardHeap.insertOrDecrease(source, 0);
+        backward.reach(target, 0, target);
+        backwardHeap.insertOrDecrease(target, 0);
+
+        long best = UNREACHABLE;
+        int meetingVertex = -1;
+        while (true) {
+            if (!forwardHeap.isEmpty() && forwardHeap.minKey() >= best) {
+                forwardHeap.clear();
+            }
+            if (!backwardHeap.isEmpty() && backwardHeap.minKey() >= best) {
+                backwardHeap.clear();
+            }
+            boolean expandForward;
+            if (forwardHeap.isEmpty()) {
+                if (backwardHeap.isEmpty()) {
+                    break;
+                }
+                expandForward = false;
+            } else {
+                expandForward = backwardHeap.isEmpty() || forwardHeap.minKey() <= backwardHeap.minKey();
+            }
+            QueryWorkspace side = expandForward ? forward : backward;
+            QueryWorkspace other = expandForward ? backward : forward;
+            ContractionHierarchy.Edges edges = expandForward ? hierarchy.upward() : hierarchy.downward();
+
+            int vertex = side.heap().pollMin();
+            int distance = side.distance(vertex);
+            int remaining = other.distance(vertex);
+            if (remaining != UNREACHABLE && (long) distance + remaining < best) {
+                best = (long) distance + remaining;
+                meetingVertex = vertex;
+            }
+            int[] targets = edges.targets();
+            int[] weights = edges.weights();
+            for (int e = edges.offsets()[vertex]; e < edges.offsets()[vertex + 1]; e++) {
+                int child = targets[e];
+                long candidate = (long) distance + weights[e];
+                if (candidate < side.distance(child)) {
+                    side.reach(child, (int) candidate, vertex);
+                    side.heap().insertOrDecrease(child, (int) candidate);
+                }
+            }
+        }
+        forward.meetAt(meetingVertex);
+        return (int) best;
+    }
+
+    /**
+     * Joins the hierarchy paths at the meeting vertex and replaces every shortcut by the edges it bypasses.
+     */
+    @Override
+    public int[] route(QueryWorkspace forward, int source, int target) {
+        QueryWorkspace backward = QueryWorkspace.backwardForCurrentThread();
+        int meetingVertex = forward.meetingVertex();
+        int[] up = forward.route(source, meetingVertex);
+        int[] down = backward.route(target, meetingVertex);
+
+        int[] route = new int[up.length + down.length];
+        int length = 0;
+        route[length++] = source;
+        int[] pending = new int[16];
+        for (int i = 1; i < up.length + down.length - 1; i++) {
+            int from = i < up.length ? up[i - 1] : down[up.length + down.length - 1 - i];
+            int to = i < up.length ? up[i] : down[up.length + down.length - 2 - i];
+            // Unpacks the edge depth-first: the stack holds the ends of edges still to expand, last edge first
+            int top = 0;
+            pending[top++] = to;
+            pending[top++] = from;
+            while (top > 0) {
+                int a = pending[--top];
+                int b = pending[--top];
+                int middle = hierarchy.middle(a, b);
+                if (middle < 0) {
+                    if (length == route.length) {
+                        route = Arrays.copyOf(route, length * 2);
+                    }
+                    route[length++] = b;
+                    continue;
+                }
+                if (top + 4 > pending.length) {
+                    pending = Arrays.copyOf(pending, pending.length * 2);
+                }
+                pending[top++] = b;
+                pending[top++] = middle;
+                pending[top++] = middle;
+                pending[top++] = a;
+            }
+        }
+        return Arrays.copyOf(route, length);
+    }
+}
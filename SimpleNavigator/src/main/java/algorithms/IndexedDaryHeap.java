@@ -0,0 +1,129 @@
+package algorithms;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * Indexed 4-ary min-heap of vertices keyed by {@code int} priorities, with decrease-key.
+ * The heap layout and the vertex positions are kept in primitive arrays.
+ */
+final class IndexedDaryHeap {
+    private static final int ARITY = 4;
+    private static final int ABSENT = -1;
+
+    private final int[] heap;
+    private final int[] keys;
+    private final int[] positions;
+    private int size;
+
+    IndexedDaryHeap(int capacity) {
+        heap = new int[capacity];
+        keys = new int[capacity];
+        positions = new int[capacity];
+        Arrays.fill(positions, ABSENT);
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean contains(int vertex) {
+        return positions[vertex] != ABSENT;
+    }
+
+    /**
+     * Inserts the vertex, or lowers its key if it is already queued with a larger one.
+     */
+    void insertOrDecrease(int vertex, int key) {
+        int position = positions[vertex];
+        if (position == ABSENT) {
+            position = size++;
+        } else if (key >= keys[vertex]) {
+            return;
+        }
+        keys[vertex] = key;
+        siftUp(position, vertex);
+    }
+
+    int minKey() {
+        if (size == 0) {
+            throw new NoSuchElementException("Heap is empty");
+        }
+        return keys[heap[0]];
+    }
+
+    /**
+     * Removes the vertex with the smallest key and returns it.
+     */
+    int pollMin() {
+        if (size == 0) {
+            throw new NoSuchElementException("Heap is empty");
+        }
+        int min = heap[0];
+        positions[min] = ABSENT;
+        int last = heap[--size];
+        if (size > 0) {
+            siftDown(0, last);
+        }
+        return min;
+    }
+
+    /**
+     * Removes all remaining vertices in time proportional to their number.
+     */
+    void clear() {
+        for (int i = 0; i < size; i++) {
+            positions[heap[i]] = ABSENT;
+        }
+        size = 0;
+    }
+
+    private void siftUp(int position, int vertex) {
+        int key = keys[vertex];
+        while (position > 0) {
+            int parentPosition = (position - 1) / ARITY;
+            int parent = heap[parentPosition];
+            if (keys[parent] <= key) {
+                break;
+            }
+            heap[position] = parent;
+            positions[parent] = position;
+            position = parentPosition;
+        }
+        heap[position] = vertex;
+        positions[vertex] = position;
+    }
+
+    private void siftDown(int position, int vertex) {
+        int key = keys[vertex];
+        while (true) {
+            int firstChild = position * ARITY + 1;
+            if (firstChild >= size) {
+                break;
+            }
+            int lastChild = Math.min(firstChild + ARITY, size);
+            int minChild = firstChild;
+            int minKey = keys[heap[firstChild]];
+            for (int child = firstChild + 1; child < lastChild; child++) {
+                int childKey = keys[heap[child]];
+                if (childKey < minKey) {
+                    minKey = childKey;
+                    minChild = child;
+                }
+            }
+            if (minKey >= key) {
+                break;
+            }
+            int childVertex = heap[minChild];
+            heap[position] = childVertex;
+            positions[childVertex] = position;
+            position = minChild;
+        }
+        heap[position] = vertex;
+        positions[vertex] = position;
+    }
+}
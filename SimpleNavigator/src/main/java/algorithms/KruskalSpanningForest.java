@@ -0,0 +1,74 @@
+package algorithms;
+
+import data.SpanningForest;
+import graph.Graph;
+import graph.NeighborCursor;
+
+import java.util.Arrays;
+
+/**
+ * Kruskal's minimum spanning forest of the undirected view of a graph, where two vertices are joined
+ * if an edge leads from either one to the other.
+ * <p>
+ * Every edge is packed into a {@code long} with the weight in the high half and its index in the low half,
+ * so one parallel sort of a primitive array orders the edges by weight. The edges are then taken lightest
+ * first unless a {@link UnionFind} shows that their ends are already connected. An undirected graph contributes
+ * each edge once; of the two directions of a directed pair the lighter one is taken first and the other is
+ * rejected. Self-loops are ignored.
+ */
+final class KruskalSpanningForest {
+    private KruskalSpanningForest() {}
+
+    static SpanningForest compute(Graph graph) {
+        int vertexCount = graph.getVertexCount();
+        boolean eachEdgeOnce = !graph.isDirected();
+        NeighborCursor neighbors = graph.newNeighborCursor();
+        int edgeCount = 0;
+        for (int vertex = 0; vertex < vertexCount; vertex++) {
+            neighbors.reset(vertex);
+            while (neighbors.next()) {
+                if (isCandidate(vertex, neighbors.target(), eachEdgeOnce)) {
+                    edgeCount++;
+                }
+            }
+        }
+
+        int[] sources = new int[edgeCount];
+        int[] targets = new int[edgeCount];
+        long[] edges = new long[edgeCount];
+        int index = 0;
+        for (int vertex = 0; vertex < vertexCount; vertex++) {
+            neighbors.reset(vertex);
+            while (neighbors.next()) {
+                if (isCandidate(vertex, neighbors.target(), eachEdgeOnce)) {
+                    sources[index] = vertex;
+                    targets[index] = neighbors.target();
+                    edges[index] = (long) neighbors.weight() << 32 | index;
+                    index++;
+                }
+            }
+        }
+        Arrays.parallelSort(edges);
+
+        UnionFind components = new UnionFind(vertexCount);
+        int[] treeSources = new int[Math.max(0, vertexCount - 1)];
+        int[] treeTargets = new int[treeSources.length];
+        int[] treeWeights = new int[treeSources.length];
+        int taken = 0;
+        for (int i = 0; i < edges.length && taken < treeSources.length; i++) {
+            int edge = (int) edges[i];
+            if (components.union(sources[edge], targets[edge])) {
+                treeSources[taken] = sources[edge];
+                treeTargets[taken] = targets[edge];
+                treeWeights[taken] = (int) (edges[i] >> 32);
+                taken++;
+            }
+        }
+        return new SpanningForest(vertexCount, Arrays.copyOf(treeSources, taken),
+                Arrays.copyOf(treeTargets, taken), Arrays.copyOf(treeWeights, taken), components.setCount());
+    }
+
+    private static boolean isCandidate(int source, int target, boolean eachEdgeOnce) {
+        return eachEdgeOnce ? source < target : source != target;
+    }
+}
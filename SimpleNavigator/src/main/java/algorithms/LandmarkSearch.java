@@ -0,0 +1,52 @@
+package algorithms;
+
+import graph.NeighborCursor;
+
+/**
+ * A* search guided by landmark lower bounds (ALT).
+ * The bounds are consistent, so a vertex is final once settled, as in Dijkstra's algorithm,
+ * but vertices leading away from the target are settled late or never.
+ */
+final class LandmarkSearch implements PointToPointSearch {
+    private final LandmarkTable landmarks;
+
+    LandmarkSearch(LandmarkTable landmarks) {
+        this.landmarks = landmarks;
+    }
+
+    LandmarkTable getLandmarks() {
+        return landmarks;
+    }
+
+    @Override
+    public int distance(QueryWorkspace workspace, int source, int target) {
+        NeighborCursor neighbors = workspace.neighbors();
+        IndexedDaryHeap heap = workspace.heap();
+        workspace.reach(source, 0, source);
+        heap.insertOrDecrease(source, landmarks.lowerBound(source, target));
+
+        while (!heap.isEmpty()) {
+            int vertex = heap.pollMin();
+            workspace.settle(vertex);
+            if (vertex == target) {
+                break;
+            }
+            int distance = workspace.distance(vertex);
+            neighbors.reset(vertex);
+            while (neighbors.next()) {
+                int child = neighbors.target();
+                int weight = neighbors.weight();
+                if (weight <= 0 || workspace.isSettled(child)) {
+                    continue;
+                }
+                long candidate = (long) distance + weight;
+                if (candidate < workspace.distance(child)) {
+                    workspace.reach(child, (int) candidate, vertex);
+                    long estimate = candidate + landmarks.lowerBound(child, target);
+                    heap.insertOrDecrease(child, (int) Math.min(estimate, Integer.MAX_VALUE));
+                }
+            }
+        }
+        return workspace.distance(target);
+    }
+}
@@ -0,0 +1,229 @@
+package algorithms;
+
+import graph.Graph;
+import graph.NeighborCursor;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+
+/**
+ * Distances between every vertex and a few landmark vertices, used as A* lower bounds (ALT).
+ * <p>
+ * By the triangle inequality, {@code d(L, t) - d(L, v)} and {@code d(v, L) - d(t, L)} never exceed
+ * {@code d(v, t)} for any landmark {@code L}. Landmarks are chosen by farthest-point selection, each one
+ * as far as possible from those already chosen. Distances are kept vertex-major in flat {@code int[]}
+ * arrays, so the bounds of one vertex are adjacent in memory; for undirected graphs the distances
+ * to and from a landmark are the same array.
+ * <p>
+ * The table is bound to the graph as loaded when it was built or loaded, and can be saved next to
+ * the graph file to skip the preprocessing on the next run. A saved table only loads for a graph
+ * with the same fingerprint.
+ */
+public final class LandmarkTable {
+    public static final int DEFAULT_LANDMARK_COUNT = 16;
+
+    private static final int MAGIC = 0x4C474E53; // "SNGL" in file byte order
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 32;
+    private static final int DIRECTED_FLAG = 1;
+
+    private final Graph graph;
+    private final NeighborCursor boundEdges;
+    private final int vertexCount;
+    private final int[] landmarks;
+    private final int[] fromLandmarks;
+    private final int[] toLandmarks;
+
+    private LandmarkTable(Graph graph, int[] landmarks, int[] fromLandmarks, int[] toLandmarks) {
+        this.graph = graph;
+        this.boundEdges = graph.newNeighborCursor();
+        this.vertexCount = graph.getVertexCount();
+        this.landmarks = landmarks;
+        this.fromLandmarks = fromLandmarks;
+        this.toLandmarks = toLandmarks;
+    }
+
+    /**
+     * Selects landmarks and computes their distances to and from every vertex.
+     *
+     * @param graph the graph to preprocess
+     * @param landmarkCount the number of landmarks, reduced to the vertex count if larger
+     * @return the landmark table bound to the graph
+     */
+    public static LandmarkTable build(Graph graph, int landmarkCount) {
+        if (graph == null) {
+            throw new IllegalArgumentException("Graph cannot be null");
+        }
+        if (landmarkCount < 1) {
+            throw new IllegalArgumentException("Landmark count must be positive: " + landmarkCount);
+        }
+        int vertexCount = graph.getVertexCount();
+        int count = Math.min(landmarkCount, vertexCount);
+        int[] landmarks = new int[count];
+        int[] fromLandmarks = new int[vertexCount * count];
+        int[] toLandmarks = graph.isDirected() ? new int[vertexCount * count] : fromLandmarks;
+        int[] closestLandmark = new int[vertexCount];
+        boolean[] isLandmark = new boolean[vertexCount];
+
+        // The first landmark is the vertex farthest from vertex 0, every next one is farthest from all chosen
+        QueryWorkspace workspace = QueryWorkspace.forCurrentThread(graph);
+        DijkstraSearch.INSTANCE.run(workspace, 0, -1);
+        int first = 0;
+        for (int v = 1; v < vertexCount; v++) {
+            int distance = workspace.distance(v);
+            if (distance != PointToPointSearch.UNREACHABLE && distance > workspace.distance(first)) {
+                first = v;
+            }
+        }
+        Arrays.fill(closestLandmark, PointToPointSearch.UNREACHABLE);
+
+        for (int i = 0; i < count; i++) {
+            int landmark = i == 0 ? first : farthestVertex(closestLandmark, isLandmark);
+            landmarks[i] = landmark;
+            isLandmark[landmark] = true;
+
+            workspace = QueryWorkspace.forCurrentThread(graph);
+            DijkstraSearch.INSTANCE.run(workspace, landmark, -1);
+            for (int v = 0; v < vertexCount; v++) {
+                int distance = workspace.distance(v);
+                fromLandmarks[v * count + i] = distance;
+                closestLandmark[v] = Math.min(closestLandmark[v], distance);
+            }
+            if (toLandmarks != fromLandmarks) {
+                QueryWorkspace backward = QueryWorkspace.backwardForCurrentThread(graph.getTransposedGraph());
+                DijkstraSearch.INSTANCE.run(backward, landmark, -1);
+                for (int v = 0; v < vertexCount; v++) {
+                    toLandmarks[v * count + i] = backward.distance(v);
+                }
+            }
+        }
+        return new LandmarkTable(graph, landmarks, fromLandmarks, toLandmarks);
+    }
+
+    /**
+     * Loads a table saved by {@link #save} and binds it to the graph.
+     *
+     * @param graph the graph the table was built for
+     * @param filename the path to the landmark file
+     * @return the landmark table bound to the graph
+     * @throws IOException if the file cannot be read
+     * @throws IllegalArgumentException if the file is not a landmark table of this graph
+     */
+    public static LandmarkTable load(Graph graph, String filename) throws IOException {
+        if (graph == null) {
+            throw new IllegalArgumentException("Graph cannot be null");
+        }
+        try (FileChannel channel = BinaryFiles.openForReading(filename)) {
+            ByteBuffer header = BinaryFiles.readFully(channel, 0, HEADER_SIZE);
+            if (header.getInt() != MAGIC) {
+                throw new IllegalArgumentException("Not a landmark file");
+            }
+            int version = header.getInt();
+            if (version != VERSION) {
+                throw new IllegalArgumentException("Unsupported landmark file version: " + version);
+            }
+            int vertexCount = header.getInt();
+            int count = header.getInt();
+            boolean directed = (header.getInt() & DIRECTED_FLAG) != 0;
+            header.getInt();
+            long fingerprint = header.getLong();
+            if (vertexCount != graph.getVertexCount() || directed != graph.isDirected()
+                    || fingerprint != graph.getFingerprint()) {
+                throw new IllegalArgumentException("Landmark file was built for a different graph");
+            }
+            if (count < 1 || count > vertexCount) {
+                throw new IllegalArgumentException("Invalid landmark count: " + count);
+            }
+
+            int size = vertexCount * count;
+            long position = HEADER_SIZE;
+            int[] landmarks = BinaryFiles.readInts(channel, position, count);
+            position += (long) Integer.BYTES * count;
+            int[] fromLandmarks = BinaryFiles.readInts(channel, position, size);
+            position += (long) Integer.BYTES * size;
+            int[] toLandmarks = directed ? BinaryFiles.readInts(channel, position, size) : fromLandmarks;
+            return new LandmarkTable(graph, landmarks, fromLandmarks, toLandmarks);
+        }
+    }
+
+    /**
+     * Saves the table in a little-endian binary file: a 32-byte header with magic, version,
+     * vertex count, landmark count, flags and the graph fingerprint, followed by the landmark
+     * vertices, the distances from them and, for directed graphs, the distances to them.
+     *
+     * @param filename the path to the output file
+     * @throws IOException if the file cannot be written
+     */
+    public void save(String filename) throws IOException {
+        boolean directed = toLandmarks != fromLandmarks;
+        try (FileChannel channel = BinaryFiles.openForWriting(filename)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            header.putInt(MAGIC)
+                    .putInt(VERSION)
+                    .putInt(vertexCount)
+                    .putInt(landmarks.length)
+                    .putInt(directed ? DIRECTED_FLAG : 0)
+                    .putInt(0)
+                    .putLong(graph.getFingerprint())
+                    .flip();
+            BinaryFiles.writeFully(channel, header);
+            BinaryFiles.writeInts(channel, landmarks);
+            BinaryFiles.writeInts(channel, fromLandmarks);
+            if (directed) {
+                BinaryFiles.writeInts(channel, toLandmarks);
+            }
+        }
+    }
+
+    /**
+     * Returns whether the table was built for the graph as currently loaded.
+     */
+    public boolean isFor(Graph graph) {
+        return this.graph == graph && graph.isCurrent(boundEdges);
+    }
+
+    public int getLandmarkCount() {
+        return landmarks.length;
+    }
+
+    public int[] getLandmarks() {
+        return landmarks.clone();
+    }
+
+    /**
+     * Returns a lower bound of the distance from the vertex to the target.
+     * Landmarks that cannot reach or be reached from either vertex give no bound.
+     */
+    int lowerBound(int vertex, int target) {
+        int count = landmarks.length;
+        int vertexRow = vertex * count;
+        int targetRow = target * count;
+        int bound = 0;
+        for (int i = 0; i < count; i++) {
+            int fromToTarget = fromLandmarks[targetRow + i];
+            int fromToVertex = fromLandmarks[vertexRow + i];
+            if (fromToTarget != PointToPointSearch.UNREACHABLE && fromToVertex != PointToPointSearch.UNREACHABLE) {
+                bound = Math.max(bound, fromToTarget - fromToVertex);
+            }
+            int vertexToLandmark = toLandmarks[vertexRow + i];
+            int targetToLandmark = toLandmarks[targetRow + i];
+            if (vertexToLandmark != PointToPointSearch.UNREACHABLE && targetToLandmark != PointToPointSearch.UNREACHABLE) {
+                bound = Math.max(bound, vertexToLandmark - targetToLandmark);
+            }
+        }
+        return bound;
+    }
+
+    private static int farthestVertex(int[] closestLandmark, boolean[] isLandmark) {
+        int farthest = -1;
+        for (int v = 0; v < closestLandmark.length; v++) {
+            if (!isLandmark[v] && (farthest < 0 || closestLandmark[v] > closestLandmark[farthest])) {
+                farthest = v;
+            }
+        }
+        return farthest;
+    }
+}
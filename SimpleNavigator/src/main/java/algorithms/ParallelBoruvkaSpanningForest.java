@@ -0,0 +1,135 @@
+package algorithms;
+
+import data.SpanningForest;
+import graph.Graph;
+import graph.NeighborCursor;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Parallel Borůvka minimum spanning forest of the undirected view of a graph, with the same edges
+ * considered as in {@link KruskalSpanningForest}.
+ * <p>
+ * Every round scans the edges in parallel and keeps, for each component, its cheapest edge to another one,
+ * lowered by compare-and-set on a packed weight and edge index. The chosen edges are then joined in parallel
+ * through a {@link ConcurrentUnionFind}. Ties are broken by edge index, so the chosen edges never form a cycle
+ * and every union succeeds once per edge. Each round at least halves the number of components that still have
+ * edges leaving them, and edges found inside one component are skipped from then on.
+ */
+final class ParallelBoruvkaSpanningForest {
+    private static final int VERTICES_PER_TASK = 256;
+    private static final int EDGES_PER_TASK = 4096;
+    private static final VarHandle CHEAPEST = MethodHandles.arrayElementVarHandle(long[].class);
+    private static final long NONE = Long.MAX_VALUE;
+
+    private ParallelBoruvkaSpanningForest() {}
+
+    static SpanningForest compute(Graph graph, ForkJoinPool pool) {
+        int vertexCount = graph.getVertexCount();
+        boolean eachEdgeOnce = !graph.isDirected();
+
+        // The edges are gathered in parallel: counted per vertex, offset by prefix sums, then copied
+        int[] offsets = new int[vertexCount + 1];
+        ParallelRange.forEach(pool, 0, vertexCount, VERTICES_PER_TASK, (from, to) -> {
+            NeighborCursor neighbors = graph.newNeighborCursor();
+            for (int vertex = from; vertex < to; vertex++) {
+                int count = 0;
+                neighbors.reset(vertex);
+                while (neighbors.next()) {
+                    if (isCandidate(vertex, neighbors.target(), eachEdgeOnce)) {
+                        count++;
+                    }
+                }
+                offsets[vertex + 1] = count;
+            }
+        });
+        for (int vertex = 0; vertex < vertexCount; vertex++) {
+            offsets[vertex + 1] += offsets[vertex];
+        }
+        int edgeCount = offsets[vertexCount];
+        int[] sources = new int[edgeCount];
+        int[] targets = new int[edgeCount];
+        int[] weights = new int[edgeCount];
+        ParallelRange.forEach(pool, 0, vertexCount, VERTICES_PER_TASK, (from, to) -> {
+            NeighborCursor neighbors = graph.newNeighborCursor();
+            for (int vertex = from; vertex < to; vertex++) {
+                int edge = offsets[vertex];
+                neighbors.reset(vertex);
+                while (neighbors.next()) {
+                    if (isCandidate(vertex, neighbors.target(), eachEdgeOnce)) {
+                        sources[edge] = vertex;
+                        targets[edge] = neighbors.target();
+                        weights[edge] = neighbors.weight();
+                        edge++;
+                    }
+                }
+            }
+        });
+
+        ConcurrentUnionFind components = new ConcurrentUnionFind(vertexCount);
+        long[] cheapest = new long[vertexCount];
+        Arrays.fill(cheapest, NONE);
+        int[] treeSources = new int[Math.max(0, vertexCount - 1)];
+        int[] treeTargets = new int[treeSources.length];
+        int[] treeWeights = new int[treeSources.length];
+        AtomicInteger taken = new AtomicInteger();
+        int joined = -1;
+        while (taken.get() > joined && taken.get() < treeSources.length) {
+            joined = taken.get();
+            ParallelRange.forEach(pool, 0, edgeCount, EDGES_PER_TASK, (from, to) -> {
+                for (int edge = from; edge < to; edge++) {
+                    if (sources[edge] < 0) {
+                        continue;
+                    }
+                    int sourceRoot = components.find(sources[edge]);
+                    int targetRoot = components.find(targets[edge]);
+                    if (sourceRoot == targetRoot) {
+                        sources[edge] = -1;
+                        continue;
+                    }
+                    long key = (long) weights[edge] << 32 | edge;
+                    lower(cheapest, sourceRoot, key);
+                    lower(cheapest, targetRoot, key);
+                }
+            });
+            ParallelRange.forEach(pool, 0, vertexCount, VERTICES_PER_TASK, (from, to) -> {
+                for (int root = from; root < to; root++) {
+                    long key = cheapest[root];
+                    if (key == NONE) {
+                        continue;
+                    }
+                    cheapest[root] = NONE;
+                    int edge = (int) key;
+                    if (components.union(sources[edge], targets[edge])) {
+                        int slot = taken.getAndIncrement();
+                        treeSources[slot] = sources[edge];
+                        treeTargets[slot] = targets[edge];
+                        treeWeights[slot] = weights[edge];
+                    }
+                }
+            });
+        }
+        int count = taken.get();
+        return new SpanningForest(vertexCount, Arrays.copyOf(treeSources, count),
+                Arrays.copyOf(treeTargets, count), Arrays.copyOf(treeWeights, count), vertexCount - count);
+    }
+
+    private static void lower(long[] cheapest, int root, long key) {
+        long current = (long) CHEAPEST.getVolatile(cheapest, root);
+        while (key < current) {
+            long witness = (long) CHEAPEST.compareAndExchange(cheapest, root, current, key);
+            if (witness == current) {
+                return;
+            }
+            current = witness;
+        }
+    }
+
+    private static boolean isCandidate(int source, int target, boolean eachEdgeOnce) {
+        return eachEdgeOnce ? source < target : source != target;
+    }
+}
@@ -0,0 +1,172 @@
+package algorithms;
+
+import graph.Graph;
+import graph.NeighborCursor;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Level-synchronous parallel breadth-first search with direction optimization.
+ * <p>
+ * Each level is expanded either top-down (frontier vertices claim their unvisited neighbors)
+ * or bottom-up (unvisited vertices look for a parent in the frontier through their incoming edges).
+ * The search switches to bottom-up when the frontier touches a large share of the remaining edges
+ * and back to top-down once the frontier shrinks. Frontiers and the visited set are bitmaps.
+ */
+final class ParallelBreadthFirstSearch {
+    private static final int TOP_DOWN_ALPHA = 14;
+    private static final int BOTTOM_UP_BETA = 24;
+    private static final int TOP_DOWN_GRAIN_WORDS = 16;
+    private static final int BOTTOM_UP_GRAIN_WORDS = 64;
+    private static final VarHandle WORDS = MethodHandles.arrayElementVarHandle(long[].class);
+
+    private final Graph graph;
+    private final Graph transposedGraph;
+    private final ForkJoinPool pool;
+    private final int vertexCount;
+    private final int wordCount;
+    private final int[] levels;
+    private final long[] visited;
+    private long[] frontier;
+    private long[] next;
+    private final LongAdder nextCount = new LongAdder();
+    private final LongAdder nextEdges = new LongAdder();
+
+    private ParallelBreadthFirstSearch(Graph graph, ForkJoinPool pool) {
+        this.graph = graph;
+        this.transposedGraph = graph.getTransposedGraph();
+        this.pool = pool;
+        vertexCount = graph.getVertexCount();
+        wordCount = (vertexCount + 63) >>> 6;
+        levels = new int[vertexCount];
+        visited = new long[wordCount];
+        frontier = new long[wordCount];
+        next = new long[wordCount];
+    }
+
+    /**
+     * Returns the number of edges on the shortest hop path from the start vertex to every vertex,
+     * or -1 for vertices that cannot be reached.
+     */
+    static int[] levels(Graph graph, int startVertex, ForkJoinPool pool) {
+        return new ParallelBreadthFirstSearch(graph, pool).run(startVertex);
+    }
+
+    private int[] run(int startVertex) {
+        Arrays.fill(levels, -1);
+        levels[startVertex] = 0;
+        visited[startVertex >>> 6] |= 1L << startVertex;
+        frontier[startVertex >>> 6] |= 1L << startVertex;
+
+        long frontierCount = 1;
+        long frontierEdges = graph.getOutDegree(startVertex);
+        long unexploredEdges = graph.getEdgeCount() - frontierEdges;
+        boolean bottomUp = false;
+        for (int level = 0; frontierCount > 0; level++) {
+            if (!bottomUp) {
+                bottomUp = frontierEdges > unexploredEdges / TOP_DOWN_ALPHA;
+            } else {
+                bottomUp = frontierCount >= vertexCount / BOTTOM_UP_BETA;
+            }
+
+            Arrays.fill(next, 0);
+            nextCount.reset();
+            nextEdges.reset();
+            if (bottomUp) {
+                bottomUpStep(level + 1);
+            } else {
+                topDownStep(level + 1);
+            }
+            long[] swap = frontier;
+            frontier = next;
+            next = swap;
+            frontierCount = nextCount.sum();
+            frontierEdges = nextEdges.sum();
+            unexploredEdges -= frontierEdges;
+        }
+        return levels;
+    }
+
+    private void topDownStep(int nextLevel) {
+        ParallelRange.forEach(pool, 0, wordCount, TOP_DOWN_GRAIN_WORDS, (from, to) -> {
+            NeighborCursor neighbors = graph.newNeighborCursor();
+            long count = 0;
+            long edges = 0;
+            for (int word = from; word < to; word++) {
+                long bits = frontier[word];
+                while (bits != 0) {
+                    int vertex = (word << 6) | Long.numberOfTrailingZeros(bits);
+                    bits &= bits - 1;
+                    neighbors.reset(vertex);
+                    while (neighbors.next()) {
+                        int child = neighbors.target();
+                        if (claim(child)) {
+                            levels[child] = nextLevel;
+                            WORDS.getAndBitwiseOr(next, child >>> 6, 1L << child);
+                            count++;
+                            edges += graph.getOutDegree(child);
+                        }
+                    }
+                }
+            }
+            nextCount.add(count);
+            nextEdges.add(edges);
+        });
+    }
+
+    private void bottomUpStep(int nextLevel) {
+        ParallelRange.forEach(pool, 0, wordCount, BOTTOM_UP_GRAIN_WORDS, (from, to) -> {
+            NeighborCursor parents = transposedGraph.newNeighborCursor();
+            long count = 0;
+            long edges = 0;
+            // Every task owns whole words, so the visited and next words are written without atomics
+            for (int word = from; word < to; word++) {
+                long bits = ~visited[word] & validBits(word);
+                long found = 0;
+                while (bits != 0) {
+                    int vertex = (word << 6) | Long.numberOfTrailingZeros(bits);
+                    bits &= bits - 1;
+                    parents.reset(vertex);
+                    while (parents.next()) {
+                        int parent = parents.target();
+                        if ((frontier[parent >>> 6] & (1L << parent)) != 0) {
+                            levels[vertex] = nextLevel;
+                            found |= 1L << vertex;
+                            count++;
+                            edges += graph.getOutDegree(vertex);
+                            break;
+                        }
+                    }
+                }
+                visited[word] |= found;
+                next[word] = found;
+            }
+            nextCount.add(count);
+            nextEdges.add(edges);
+        });
+    }
+
+    /**
+     * Atomically marks the vertex as visited.
+     *
+     * @return true if this call marked it, false if it had already been visited
+     */
+    private boolean claim(int vertex) {
+        long mask = 1L << vertex;
+        int word = vertex >>> 6;
+        if (((long) WORDS.getOpaque(visited, word) & mask) != 0) {
+            return false;
+        }
+        long previous = (long) WORDS.getAndBitwiseOr(visited, word, mask);
+        return (previous & mask) == 0;
+    }
+
+    private long validBits(int word) {
+        int remaining = vertexCount - (word << 6);
+        return remaining >= 64 ? -1L : (1L << remaining) - 1;
+    }
+}
@@ -0,0 +1,36 @@
+package algorithms;
+
+import graph.Graph;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * All-pairs shortest paths as a heap-based Dijkstra search from every source.
+ * Sources are split into blocks that run as fork/join tasks; each worker thread searches
+ * in its own {@link QueryWorkspace}, so the searches allocate nothing beyond the result.
+ * <p>
+ * Edge weights are positive, so no Johnson reweighting is needed.
+ */
+final class ParallelDijkstraAllPairs {
+    private static final int SOURCES_PER_TASK = 4;
+
+    private ParallelDijkstraAllPairs() {}
+
+    /**
+     * Stores the distances from every source in {@code [fromSource, toSource)} to every vertex in the block,
+     * row after row, with {@link FloydWarshall#INFINITY} for missing paths.
+     */
+    static void distances(Graph graph, ForkJoinPool pool, int fromSource, int toSource, int[] block) {
+        int vertexCount = graph.getVertexCount();
+        ParallelRange.forEach(pool, fromSource, toSource, SOURCES_PER_TASK, (from, to) -> {
+            for (int source = from; source < to; source++) {
+                QueryWorkspace workspace = QueryWorkspace.forCurrentThread(graph);
+                DijkstraSearch.INSTANCE.run(workspace, source, -1);
+                int row = (source - fromSource) * vertexCount;
+                for (int target = 0; target < vertexCount; target++) {
+                    block[row + target] = Math.min(workspace.distance(target), FloydWarshall.INFINITY);
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,55 @@
+package algorithms;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Splits an index range into fork/join tasks of bounded size.
+ */
+final class ParallelRange {
+    @FunctionalInterface
+    interface RangeAction {
+        void run(int from, int to);
+    }
+
+    private ParallelRange() {}
+
+    /**
+     * Runs the action over {@code [from, to)} in blocks of at most {@code grain} indices and waits for all of them.
+     */
+    static void forEach(ForkJoinPool pool, int from, int to, int grain, RangeAction action) {
+        if (to - from <= grain) {
+            if (from < to) {
+                action.run(from, to);
+            }
+            return;
+        }
+        pool.invoke(new RangeTask(from, to, Math.max(1, grain), action));
+    }
+
+    private static final class RangeTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int from;
+        private final int to;
+        private final int grain;
+        private final RangeAction action;
+
+        private RangeTask(int from, int to, int grain, RangeAction action) {
+            this.from = from;
+            this.to = to;
+            this.grain = grain;
+            this.action = action;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= grain) {
+                action.run(from, to);
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new RangeTask(from, middle, grain, action), new RangeTask(middle, to, grain, action));
+        }
+    }
+}
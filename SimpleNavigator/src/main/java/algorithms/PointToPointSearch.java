@@ -0,0 +1,23 @@
+package algorithms;
+
+/**
+ * Shortest path search between two vertices of one graph.
+ * Implementations are stateless: the state of a query lives in the {@link QueryWorkspace} passed in,
+ * so the route can be recovered from the same workspace after the distance.
+ */
+interface PointToPointSearch {
+    int UNREACHABLE = Integer.MAX_VALUE;
+
+    /**
+     * Returns the length of the shortest path, or {@link #UNREACHABLE} if the target cannot be reached.
+     */
+    int distance(QueryWorkspace workspace, int source, int target);
+
+    /**
+     * Returns the vertices of the path found by the last {@link #distance} call on the workspace
+     * with the same arguments.
+     */
+    default int[] route(QueryWorkspace workspace, int source, int target) {
+        return workspace.route(source, target);
+    }
+}
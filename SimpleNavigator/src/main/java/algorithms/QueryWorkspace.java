@@ -0,0 +1,171 @@
+package algorithms;
+
+import graph.Graph;
+import graph.NeighborCursor;
+
+import java.util.Arrays;
+
+/**
+ * Per-thread state of a shortest path query: tentative distances, predecessors, settled marks,
+ * the priority queues and a neighbor cursor.
+ * <p>
+ * Distances and settled marks are epoch-stamped, so starting a query does not clear any arrays.
+ * Each thread keeps one workspace that grows to the largest graph it has queried and keeps
+ * the cursor of the last queried graph, so repeated queries allocate nothing.
+ */
+final class QueryWorkspace {
+    private static final ThreadLocal<QueryWorkspace> WORKSPACES = ThreadLocal.withInitial(QueryWorkspace::new);
+    private static final ThreadLocal<QueryWorkspace> BACKWARD_WORKSPACES = ThreadLocal.withInitial(QueryWorkspace::new);
+
+    private Graph graph;
+    private int vertexCount;
+    private NeighborCursor neighbors;
+    private int[] distances = new int[0];
+    private int[] predecessors = new int[0];
+    private int[] reachedStamps = new int[0];
+    private int[] settledStamps = new int[0];
+    private IndexedDaryHeap heap = new IndexedDaryHeap(0);
+    private BucketQueue buckets;
+    private int epoch;
+    private int meetingVertex = -1;
+
+    /**
+     * Returns the workspace of the calling thread, prepared for a new query on the graph.
+     * The workspace stays valid until the same thread starts another query.
+     */
+    static QueryWorkspace forCurrentThread(Graph graph) {
+        QueryWorkspace workspace = WORKSPACES.get();
+        workspace.prepare(graph);
+        return workspace;
+    }
+
+    /**
+     * Returns the second workspace of the calling thread, prepared for the backward half of a query
+     * that searches from both ends.
+     */
+    static QueryWorkspace backwardForCurrentThread(Graph graph) {
+        QueryWorkspace workspace = BACKWARD_WORKSPACES.get();
+        workspace.prepare(graph);
+        return workspace;
+    }
+
+    /**
+     * Returns the second workspace of the calling thread as left by the last backward search.
+     */
+    static QueryWorkspace backwardForCurrentThread() {
+        return BACKWARD_WORKSPACES.get();
+    }
+
+    /**
+     * Binds the workspace to the graph and forgets the previous query.
+     */
+    void prepare(Graph graph) {
+        int vertexCount = graph.getVertexCount();
+        if (distances.length < vertexCount) {
+            distances = new int[vertexCount];
+            predecessors = new int[vertexCount];
+            reachedStamps = new int[vertexCount];
+            settledStamps = new int[vertexCount];
+            heap = new IndexedDaryHeap(vertexCount);
+            buckets = null;
+            epoch = 0;
+        } else {
+            heap.clear();
+        }
+        this.vertexCount = vertexCount;
+        if (this.graph != graph || !graph.isCurrent(neighbors)) {
+            this.graph = graph;
+            neighbors = graph.newNeighborCursor();
+        }
+        meetingVertex = -1;
+        if (++epoch == Integer.MAX_VALUE) {
+            Arrays.fill(reachedStamps, 0);
+            Arrays.fill(settledStamps, 0);
+            epoch = 1;
+        }
+    }
+
+    Graph graph() {
+        return graph;
+    }
+
+    int vertexCount() {
+        return vertexCount;
+    }
+
+    NeighborCursor neighbors() {
+        return neighbors;
+    }
+
+    IndexedDaryHeap heap() {
+        return heap;
+    }
+
+    /**
+     * Returns the bucket queue of the workspace, created on first use; searches reset it with their key span.
+     */
+    BucketQueue buckets() {
+        if (buckets == null) {
+            buckets = new BucketQueue(distances.length);
+        }
+        return buckets;
+    }
+
+    /**
+     * Returns the tentative distance of the vertex, or {@link PointToPointSearch#UNREACHABLE}
+     * if the current query has not reached it.
+     */
+    int distance(int vertex) {
+        return reachedStamps[vertex] == epoch ? distances[vertex] : PointToPointSearch.UNREACHABLE;
+    }
+
+    /**
+     * Records a new tentative distance of the vertex and the vertex it was reached from.
+     */
+    void reach(int vertex, int distance, int predecessor) {
+        reachedStamps[vertex] = epoch;
+        distances[vertex] = distance;
+        predecessors[vertex] = predecessor;
+    }
+
+    /**
+     * Returns the vertex the vertex was reached from, which is valid only if the current query has reached it.
+     */
+    int predecessor(int vertex) {
+        return predecessors[vertex];
+    }
+
+    boolean isSettled(int vertex) {
+        return settledStamps[vertex] == epoch;
+    }
+
+    void settle(int vertex) {
+        settledStamps[vertex] = epoch;
+    }
+
+    /**
+     * Returns the vertex where the two halves of a bidirectional search met, or -1.
+     */
+    int meetingVertex() {
+        return meetingVertex;
+    }
+
+    void meetAt(int vertex) {
+        meetingVertex = vertex;
+    }
+
+    /**
+     * Builds the route of the current query by following predecessor links back from the target.
+     */
+    int[] route(int source, int target) {
+        int length = 1;
+        for (int vertex = target; vertex != source; vertex = predecessors[vertex]) {
+            length++;
+        }
+        int[] route = new int[length];
+        for (int vertex = target, i = length - 1; i >= 0; vertex = predecessors[vertex], i--) {
+            route[i] = vertex;
+        }
+        return route;
+    }
+}
@@ -0,0 +1,11 @@
+package algorithms;
+
+/**
+ * Inner loop of Floyd–Warshall: relaxes a run of row {@code i} through vertex {@code k}.
+ */
+interface RelaxKernel {
+    /**
+     * Sets {@code d[rowI + j] = min(d[rowI + j], throughK + d[rowK + j])} for every {@code j} in {@code [from, to)}.
+     */
+    void relax(int[] d, int rowI, int rowK, int throughK, int from, int to);
+}
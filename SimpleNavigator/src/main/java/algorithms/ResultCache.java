@@ -0,0 +1,293 @@
+package algorithms;
+
+import graph.Graph;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Cache of computed results in a local directory, shared between runs.
+ * <p>
+ * An entry is named by the SHA-256 hash of the graph fingerprint, the algorithm and its parameters,
+ * so the same adjacency data finds its results again whatever file it was loaded from. Entries are
+ * little-endian binary files that are memory-mapped when read: distance matrices in the {@link DistanceMatrix}
+ * format, other results as rows of ints after a 32-byte header with magic, version, row and column counts,
+ * a value such as the route length and the graph fingerprint.
+ * <p>
+ * When the entries take more than the size bound, the least recently used ones are deleted. Every hit
+ * updates the modification time of its file, so the order of use survives restarts.
+ */
+public final class ResultCache {
+    private static final String SUFFIX = ".bin";
+    private static final int MAGIC = 0x52474E53; // "SNGR" in file byte order
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 32;
+
+    private final Path directory;
+    private final long maxBytes;
+    /** File sizes of the entries, least recently used first */
+    private final LinkedHashMap<String, Long> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long sizeBytes;
+    private long hitCount;
+    private long missCount;
+
+    /**
+     * Opens the cache directory, creating it if needed, and takes over the entries already in it.
+     *
+     * @param directory the path to the cache directory
+     * @param maxBytes the total size of the entries to keep
+     * @throws IOException if the directory cannot be created or listed
+     */
+    public ResultCache(String directory, long maxBytes) throws IOException {
+        if (maxBytes <= 0) {
+            throw new IllegalArgumentException("Cache size must be positive: " + maxBytes);
+        }
+        this.directory = Path.of(directory);
+        this.maxBytes = maxBytes;
+        Files.createDirectories(this.directory);
+
+        List<Path> files = new ArrayList<>();
+        try (Stream<Path> listing = Files.list(this.directory)) {
+            listing.filter(file -> file.getFileName().toString().endsWith(SUFFIX)).forEach(files::add);
+        }
+        Map<Path, FileTime> lastUse = new HashMap<>();
+        for (Path file : files) {
+            lastUse.put(file, Files.getLastModifiedTime(file));
+        }
+        files.sort(Comparator.comparing(lastUse::get));
+        for (Path file : files) {
+            String name = file.getFileName().toString();
+            long size = Files.size(file);
+            entries.put(name.substring(0, name.length() - SUFFIX.length()), size);
+            sizeBytes += size;
+        }
+        evict();
+    }
+
+    /**
+     * Result stored as rows of ints with one extra value; {@code rows} is null for a missing result.
+     */
+    record Rows(int[][] rows, double value) {}
+
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    /**
+     * Returns the total size of the entries in bytes.
+     */
+    public synchronized long getSizeBytes() {
+        return sizeBytes;
+    }
+
+    public synchronized int getEntryCount() {
+        return entries.size();
+    }
+
+    public synchronized long getHitCount() {
+        return hitCount;
+    }
+
+    public synchronized long getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * Deletes every entry.
+     *
+     * @throws IOException if an entry cannot be deleted
+     */
+    public synchronized void clear() throws IOException {
+        for (Iterator<String> keys = entries.keySet().iterator(); keys.hasNext(); ) {
+            Files.deleteIfExists(path(keys.next()));
+            keys.remove();
+        }
+        sizeBytes = 0;
+    }
+
+    /**
+     * Returns the key of a result of the algorithm with the given parameters on the graph as currently loaded.
+     */
+    static String key(Graph graph, String algorithm, String parameters) {
+        String content = algorithm + '\n' + parameters + '\n' + graph.getVertexCount() + '\n' + graph.getFingerprint();
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(content.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * Returns the file of an entry, whether it exists or not.
+     */
+    Path path(String key) {
+        return directory.resolve(key + SUFFIX);
+    }
+
+    /**
+     * Maps the distance matrix stored under the key, or returns null on a miss.
+     */
+    DistanceMatrix findDistanceMatrix(String key, Graph graph) throws IOException {
+        Path file = find(key);
+        if (file == null) {
+            return null;
+        }
+        try {
+            DistanceMatrix matrix = DistanceMatrix.open(file.toString());
+            if (matrix.getVertexCount() == graph.getVertexCount() && matrix.getFingerprint() == graph.getFingerprint()) {
+                hit(file);
+                return matrix;
+            }
+        } catch (IllegalArgumentException | NoSuchFileException e) {
+            // A damaged entry or one evicted since it was found is computed again
+        }
+        discard(key);
+        return null;
+    }
+
+    /**
+     * Maps the rows stored under the key, copies them to the heap and decodes them, or returns null on a miss.
+     * Rows the decoder rejects with an {@link IllegalArgumentException} are a damaged entry, which is
+     * deleted and counted as a miss.
+     */
+    <T> T findRows(String key, Graph graph, Function<Rows, T> decoder) throws IOException {
+        Path file = find(key);
+        if (file == null) {
+            return null;
+        }
+        try (FileChannel channel = BinaryFiles.openForReading(file.toString())) {
+            ByteBuffer header = BinaryFiles.readFully(channel, 0, HEADER_SIZE);
+            int magic = header.getInt();
+            int version = header.getInt();
+            int rowCount = header.getInt();
+            int columnCount = header.getInt();
+            double value = header.getDouble();
+            long fingerprint = header.getLong();
+            long dataSize = (long) Math.max(rowCount, 0) * columnCount * Integer.BYTES;
+            if (magic == MAGIC && version == VERSION && fingerprint == graph.getFingerprint()
+                    && rowCount >= -1 && columnCount >= 0 && channel.size() == HEADER_SIZE + dataSize) {
+                int[][] rows = null;
+                if (rowCount >= 0) {
+                    IntBuffer data = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_SIZE, dataSize)
+                            .order(ByteOrder.LITTLE_ENDIAN)
+                            .asIntBuffer();
+                    rows = new int[rowCount][columnCount];
+                    for (int[] row : rows) {
+                        data.get(row);
+                    }
+                }
+                T decoded = decoder.apply(new Rows(rows, value));
+                hit(file);
+                return decoded;
+            }
+        } catch (IllegalArgumentException | NoSuchFileException e) {
+            // A damaged entry or one evicted since it was found is computed again
+        }
+        discard(key);
+        return null;
+    }
+
+    /**
+     * Stores rows of equal length under the key; null rows record a missing result. The rows are written
+     * to a file of their own and moved into place, so concurrent writers of one key never share a file.
+     */
+    void putRows(String key, Graph graph, int[][] rows, double value) throws IOException {
+        Path building = Files.createTempFile(directory, key, ".part");
+        try {
+            try (FileChannel channel = BinaryFiles.openForWriting(building.toString())) {
+                ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+                header.putInt(MAGIC)
+                        .putInt(VERSION)
+                        .putInt(rows == null ? -1 : rows.length)
+                        .putInt(rows == null || rows.length == 0 ? 0 : rows[0].length)
+                        .putDouble(value)
+                        .putLong(graph.getFingerprint())
+                        .flip();
+                BinaryFiles.writeFully(channel, header);
+                if (rows != null) {
+                    for (int[] row : rows) {
+                        BinaryFiles.writeInts(channel, row);
+                    }
+                }
+            }
+            Files.move(building, path(key), StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(building);
+            throw e;
+        }
+        added(key);
+    }
+
+    /**
+     * Accounts for an entry written to {@link #path} and evicts entries over the size bound.
+     */
+    synchronized void added(String key) throws IOException {
+        long size = Files.size(path(key));
+        Long previous = entries.put(key, size);
+        sizeBytes += size - (previous == null ? 0 : previous);
+        evict();
+    }
+
+    /**
+     * Returns the file of the entry, or null after counting a miss. A found entry is counted
+     * by {@link #hit} or {@link #discard} once its contents are checked.
+     */
+    private synchronized Path find(String key) {
+        Path file = path(key);
+        if (entries.get(key) == null || !Files.exists(file)) {
+            Long size = entries.remove(key);
+            sizeBytes -= size == null ? 0 : size;
+            missCount++;
+            return null;
+        }
+        return file;
+    }
+
+    private synchronized void hit(Path file) throws IOException {
+        hitCount++;
+        try {
+            Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+        } catch (NoSuchFileException e) {
+            // Evicted meanwhile: the result read before is still valid
+        }
+    }
+
+    private synchronized void discard(String key) throws IOException {
+        Long size = entries.remove(key);
+        sizeBytes -= size == null ? 0 : size;
+        missCount++;
+        Files.deleteIfExists(path(key));
+    }
+
+    private void evict() throws IOException {
+        Iterator<Map.Entry<String, Long>> oldest = entries.entrySet().iterator();
+        while (sizeBytes > maxBytes && oldest.hasNext()) {
+            Map.Entry<String, Long> entry = oldest.next();
+            Files.deleteIfExists(path(entry.getKey()));
+            sizeBytes -= entry.getValue();
+            oldest.remove();
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package algorithms;
+
+/**
+ * Plain loop kernel, available on every JVM.
+ */
+final class ScalarRelaxKernel implements RelaxKernel {
+    static final ScalarRelaxKernel INSTANCE = new ScalarRelaxKernel();
+
+    private ScalarRelaxKernel() {
+    }
+
+    @Override
+    public void relax(int[] d, int rowI, int rowK, int throughK, int from, int to) {
+        for (int j = from; j < to; j++) {
+            int candidate = throughK + d[rowK + j];
+            if (candidate < d[rowI + j]) {
+                d[rowI + j] = candidate;
+            }
+        }
+    }
+}
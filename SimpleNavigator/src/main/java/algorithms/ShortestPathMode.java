@@ -0,0 +1,22 @@
+package algorithms;
+
+/**
+ * Strategy used by {@link GraphAlgorithmsImpl#getShortestPathBetweenVertices} for point-to-point queries.
+ */
+public enum ShortestPathMode {
+    /** Bucket queue for small positive weights, otherwise dense scan for graphs stored as a matrix and heap-based search for the rest */
+    AUTO,
+    /** Dijkstra with a linear scan for the closest vertex, O(V^2); suits dense graphs */
+    DENSE_SCAN,
+    /** Dijkstra with an indexed 4-ary heap and decrease-key, O(E log V); suits sparse graphs */
+    HEAP,
+    /** Dijkstra with Dial's bucket queue, O(E + D) for a distance D to the target; suits small integer weights;
+     * graphs with weights above 65536 fall back to {@link #HEAP} */
+    DIAL,
+    /** Heap-based Dijkstra from both ends that stops where the searches meet; the backward half uses the transposed graph */
+    BIDIRECTIONAL,
+    /** A* with landmark lower bounds; the landmark table is built on the first query of a graph or set in advance */
+    LANDMARKS,
+    /** Bidirectional search over a contraction hierarchy; the hierarchy is built on the first query of a graph or set in advance */
+    CONTRACTION
+}
@@ -0,0 +1,17 @@
+package algorithms;
+
+/**
+ * Algorithm used by {@link GraphAlgorithmsImpl#getDistanceTree} for full single-source trees.
+ */
+public enum SingleSourceStrategy {
+    /** Delta-stepping for large graphs when more than one worker thread is available, otherwise Dial's
+     * bucket queue for small positive weights and Dijkstra for the rest */
+    AUTO,
+    /** Heap-based Dijkstra on the calling thread, O(E log V) */
+    DIJKSTRA,
+    /** Dijkstra with Dial's bucket queue on the calling thread, O(E + D) for the largest distance D;
+     * graphs with weights above 65536 fall back to {@link #DIJKSTRA} */
+    DIAL,
+    /** Parallel delta-stepping with buckets of tunable width; suits graphs with millions of edges */
+    DELTA_STEPPING
+}
@@ -0,0 +1,13 @@
+package algorithms;
+
+/**
+ * Algorithm used by {@link GraphAlgorithmsImpl#getLeastSpanningForest}.
+ */
+public enum SpanningTreeStrategy {
+    /** Parallel Borůvka for large graphs when more than one worker thread is available, Kruskal otherwise */
+    AUTO,
+    /** Kruskal over one parallel sort of the edges, O(E log E) */
+    KRUSKAL,
+    /** Borůvka rounds over all edges in parallel with a lock-free union-find, O(E log V) work */
+    PARALLEL_BORUVKA
+}
@@ -0,0 +1,132 @@
+package algorithms;
+
+import S21_collection.IntQueue;
+import S21_collection.IntStack;
+import graph.Graph;
+import graph.NeighborCursor;
+
+import java.util.Arrays;
+
+/**
+ * Reusable depth-first and breadth-first traversal over one loaded graph.
+ * <p>
+ * Visited vertices are tracked with an epoch-stamped {@code int[]}, so starting a new traversal
+ * does not clear any arrays, and the visiting order is written into a preallocated buffer.
+ * The engine is bound to the graph as currently loaded and is not thread-safe.
+ */
+public final class TraversalEngine {
+    private final NeighborCursor neighbors;
+    private final int vertexCount;
+    private final int[] visitStamps;
+    private final int[] order;
+    private final IntStack stack;
+    private final IntQueue queue;
+    private int epoch;
+
+    public TraversalEngine(Graph graph) {
+        if (graph == null) {
+            throw new IllegalArgumentException("Graph cannot be null");
+        }
+        vertexCount = graph.getVertexCount();
+        neighbors = graph.newNeighborCursor();
+        visitStamps = new int[vertexCount];
+        order = new int[vertexCount];
+        stack = new IntStack(vertexCount);
+        queue = new IntQueue(vertexCount);
+    }
+
+    /**
+     * Runs a depth-first search. Adjacent vertices are pushed in ascending order,
+     * so the vertex with the largest index is explored first.
+     *
+     * @param startVertex the vertex to start from
+     * @return the number of visited vertices stored at the beginning of {@link #getOrder()}
+     */
+    public int depthFirstSearch(int startVertex) {
+        checkVertex(startVertex);
+        int stamp = nextEpoch();
+        int visitedCount = 0;
+        stack.clear();
+        stack.push(startVertex);
+
+        // A vertex is marked when it is popped: marking on push would change the depth-first order
+        while (!stack.isEmpty()) {
+            int currentVertex = stack.pop();
+            if (visitStamps[currentVertex] == stamp) {
+                continue;
+            }
+            visitStamps[currentVertex] = stamp;
+            order[visitedCount++] = currentVertex;
+
+            neighbors.reset(currentVertex);
+            while (neighbors.next()) {
+                int child = neighbors.target();
+                if (visitStamps[child] != stamp) {
+                    stack.push(child);
+                }
+            }
+        }
+        return visitedCount;
+    }
+
+    /**
+     * Runs a breadth-first search. Vertices are marked when they are enqueued,
+     * so every vertex enters the queue at most once.
+     *
+     * @param startVertex the vertex to start from
+     * @return the number of visited vertices stored at the beginning of {@link #getOrder()}
+     */
+    public int breadthFirstSearch(int startVertex) {
+        checkVertex(startVertex);
+        int stamp = nextEpoch();
+        int visitedCount = 0;
+        queue.clear();
+        queue.push(startVertex);
+        visitStamps[startVertex] = stamp;
+
+        while (!queue.isEmpty()) {
+            int currentVertex = queue.pop();
+            order[visitedCount++] = currentVertex;
+
+            neighbors.reset(currentVertex);
+            while (neighbors.next()) {
+                int child = neighbors.target();
+                if (visitStamps[child] != stamp) {
+                    visitStamps[child] = stamp;
+                    queue.push(child);
+                }
+            }
+        }
+        return visitedCount;
+    }
+
+    /**
+     * Returns the buffer holding the visiting order of the last traversal.
+     * Only the first entries, as many as the traversal returned, are meaningful.
+     */
+    public int[] getOrder() {
+        return order;
+    }
+
+    /**
+     * Returns whether the vertex was reached by the last traversal.
+     */
+    public boolean isVisited(int vertex) {
+        checkVertex(vertex);
+        return epoch != 0 && visitStamps[vertex] == epoch;
+    }
+
+    private int nextEpoch() {
+        if (++epoch == Integer.MAX_VALUE) {
+            Arrays.fill(visitStamps, 0);
+            epoch = 1;
+        }
+        return epoch;
+    }
+
+    private void checkVertex(int vertex) {
+        if (vertex < 0 || vertex >= vertexCount) {
+            throw new IllegalArgumentException("Invalid vertex index: " + vertex);
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package algorithms;
+
+/**
+ * Disjoint sets of the integers {@code 0..size-1} with union by rank and path halving,
+ * the one-pass form of path compression, so a sequence of operations takes nearly linear time.
+ */
+final class UnionFind {
+    private final int[] parents;
+    private final byte[] ranks;
+    private int setCount;
+
+    UnionFind(int size) {
+        parents = new int[size];
+        ranks = new byte[size];
+        for (int i = 0; i < size; i++) {
+            parents[i] = i;
+        }
+        setCount = size;
+    }
+
+    /**
+     * Returns the representative of the set that holds the element.
+     */
+    int find(int element) {
+        while (parents[element] != element) {
+            parents[element] = parents[parents[element]];
+            element = parents[element];
+        }
+        return element;
+    }
+
+    /**
+     * Merges the sets of two elements.
+     *
+     * @return true if they were in different sets
+     */
+    boolean union(int first, int second) {
+        int firstRoot = find(first);
+        int secondRoot = find(second);
+        if (firstRoot == secondRoot) {
+            return false;
+        }
+        if (ranks[firstRoot] < ranks[secondRoot]) {
+            parents[firstRoot] = secondRoot;
+        } else if (ranks[firstRoot] > ranks[secondRoot]) {
+            parents[secondRoot] = firstRoot;
+        } else {
+            parents[secondRoot] = firstRoot;
+            ranks[firstRoot]++;
+        }
+        setCount--;
+        return true;
+    }
+
+    int setCount() {
+        return setCount;
+    }
+}
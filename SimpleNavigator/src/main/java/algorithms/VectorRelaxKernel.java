@@ -0,0 +1,29 @@
+package algorithms;
+
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Kernel that relaxes as many columns per instruction as the CPU's preferred vector holds,
+ * using the incubating Vector API. It is only loaded when the {@code jdk.incubator.vector} module
+ * is present, see {@link FloydWarshall}.
+ */
+final class VectorRelaxKernel implements RelaxKernel {
+    private static final VectorSpecies<Integer> SPECIES = IntVector.SPECIES_PREFERRED;
+
+    @Override
+    public void relax(int[] d, int rowI, int rowK, int throughK, int from, int to) {
+        IntVector through = IntVector.broadcast(SPECIES, throughK);
+        int j = from;
+        for (int upper = from + SPECIES.loopBound(to - from); j < upper; j += SPECIES.length()) {
+            IntVector candidate = IntVector.fromArray(SPECIES, d, rowK + j).add(through);
+            IntVector.fromArray(SPECIES, d, rowI + j).min(candidate).intoArray(d, rowI + j);
+        }
+        for (; j < to; j++) {
+            int candidate = throughK + d[rowK + j];
+            if (candidate < d[rowI + j]) {
+                d[rowI + j] = candidate;
+            }
+        }
+    }
+}
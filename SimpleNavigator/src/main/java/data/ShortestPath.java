@@ -0,0 +1,11 @@
+package data;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@AllArgsConstructor
+@Getter
+public class ShortestPath {
+    private int[] vertices;    // the route from the first vertex to the second one, both included
+    private int distance;      // the length of this route
+}
@@ -0,0 +1,60 @@
+package data;
+
+import lombok.Getter;
+
+/**
+ * Minimum spanning forest as a list of edges kept in primitive arrays, one tree per connected component.
+ * The i-th edge joins {@code sources[i]} and {@code targets[i]} with weight {@code weights[i]}.
+ */
+@Getter
+public class SpanningForest {
+    private final int vertexCount;     // the number of vertices of the spanned graph
+    private final int[] sources;       // the first vertex of every edge, in the order the edges were taken
+    private final int[] targets;       // the second vertex of every edge
+    private final int[] weights;       // the weight of every edge
+    private final long totalWeight;    // the sum of the weights
+    private final int componentCount;  // the number of trees, isolated vertices included
+
+    public SpanningForest(int vertexCount, int[] sources, int[] targets, int[] weights, int componentCount) {
+        if (sources.length != targets.length || sources.length != weights.length) {
+            throw new IllegalArgumentException("Edge arrays must have equal lengths");
+        }
+        if (componentCount + sources.length != vertexCount) {
+            throw new IllegalArgumentException("A forest of " + sources.length + " edges over " + vertexCount
+                    + " vertices has " + (vertexCount - sources.length) + " trees, not " + componentCount);
+        }
+        this.vertexCount = vertexCount;
+        this.sources = sources;
+        this.targets = targets;
+        this.weights = weights;
+        this.componentCount = componentCount;
+        long sum = 0;
+        for (int weight : weights) {
+            sum += weight;
+        }
+        totalWeight = sum;
+    }
+
+    public int getEdgeCount() {
+        return weights.length;
+    }
+
+    /**
+     * Returns true if the forest is a single tree that spans every vertex.
+     */
+    public boolean isTree() {
+        return componentCount <= 1;
+    }
+
+    /**
+     * Builds the symmetric adjacency matrix of the forest, with 0 where two vertices are not joined.
+     */
+    public int[][] toAdjacencyMatrix() {
+        int[][] matrix = new int[vertexCount][vertexCount];
+        for (int i = 0; i < weights.length; i++) {
+            matrix[sources[i]][targets[i]] = weights[i];
+            matrix[targets[i]][sources[i]] = weights[i];
+        }
+        return matrix;
+    }
+}
@@ -0,0 +1,157 @@
+package graph;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Compact binary graph format that can be mapped into memory instead of being parsed.
+ * <p>
+ * Layout (little-endian): a 32-byte header with magic, version, vertex count, flags,
+ * minimal and maximal edge weight and edge count, followed by the compressed sparse row sections:
+ * {@code vertexCount + 1} row offsets, {@code edgeCount} targets and {@code edgeCount} weights.
+ * Files written before the maximal weight was stored hold zero in its place.
+ */
+final class BinaryGraphFormat {
+    static final int MAGIC = 0x42474E53; // "SNGB" in file byte order
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 32;
+    private static final int DIRECTED_FLAG = 1;
+    private static final int WRITE_BUFFER_SIZE = 1 << 16;
+
+    record Header(int vertexCount, boolean directed, int minEdgeWeight, int maxEdgeWeight, int edgeCount) {}
+
+    private BinaryGraphFormat() {}
+
+    static void write(FileChannel channel, CompressedAdjacency edges, boolean directed, int minEdgeWeight,
+                      int maxEdgeWeight) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        header.putInt(MAGIC)
+                .putInt(VERSION)
+                .putInt(edges.vertexCount())
+                .putInt(directed ? DIRECTED_FLAG : 0)
+                .putInt(minEdgeWeight)
+                .putInt(maxEdgeWeight)
+                .putLong(edges.edgeCount())
+                .flip();
+        writeFully(channel, header);
+
+        ByteBuffer buffer = ByteBuffer.allocate(WRITE_BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        writeSection(channel, buffer, edges.vertexCount() + 1,
+                i -> i < edges.vertexCount() ? edges.rowStart(i) : edges.edgeCount());
+        writeSection(channel, buffer, edges.edgeCount(), edges::target);
+        writeSection(channel, buffer, edges.edgeCount(), edges::weight);
+    }
+
+    static Header readHeader(FileChannel channel) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        while (header.hasRemaining()) {
+            if (channel.read(header, header.position()) < 0) {
+                throw new IllegalArgumentException("Binary graph file is truncated");
+            }
+        }
+        header.flip();
+        if (header.getInt() != MAGIC) {
+            throw new IllegalArgumentException("Not a binary graph file");
+        }
+        int version = header.getInt();
+        if (version != VERSION) {
+            throw new IllegalArgumentException("Unsupported binary graph version: " + version);
+        }
+        int vertexCount = header.getInt();
+        int flags = header.getInt();
+        int minEdgeWeight = header.getInt();
+        int maxEdgeWeight = header.getInt();
+        long edgeCount = header.getLong();
+        if (vertexCount < 1) {
+            throw new IllegalArgumentException("Invalid vertex count: " + vertexCount);
+        }
+        if (edgeCount < 0 || edgeCount > Integer.MAX_VALUE / Integer.BYTES) {
+            throw new IllegalArgumentException("Invalid edge count: " + edgeCount);
+        }
+        long expectedSize = HEADER_SIZE + Integer.BYTES * ((vertexCount + 1L) + 2L * edgeCount);
+        if (channel.size() < expectedSize) {
+            throw new IllegalArgumentException("Binary graph file is truncated");
+        }
+        return new Header(vertexCount, (flags & DIRECTED_FLAG) != 0, minEdgeWeight, maxEdgeWeight, (int) edgeCount);
+    }
+
+    /**
+     * Maps the edge sections of the file and checks that they form valid compressed sparse rows,
+     * so a corrupt file fails here rather than inside a later search. The mapping stays valid
+     * after the channel is closed.
+     */
+    static MappedCompressedAdjacency map(FileChannel channel, Header header) throws IOException {
+        long offsetsPosition = HEADER_SIZE;
+        long targetsPosition = offsetsPosition + Integer.BYTES * (header.vertexCount() + 1L);
+        long weightsPosition = targetsPosition + (long) Integer.BYTES * header.edgeCount();
+        IntBuffer offsets = mapInts(channel, offsetsPosition, header.vertexCount() + 1);
+        IntBuffer targets = mapInts(channel, targetsPosition, header.edgeCount());
+        IntBuffer weights = mapInts(channel, weightsPosition, header.edgeCount());
+        validate(offsets, targets, weights, header);
+        return new MappedCompressedAdjacency(offsets, targets, weights);
+    }
+
+    /**
+     * Checks the rows in one pass: offsets that start at zero, never decrease and end at the edge count,
+     * targets of every row strictly increasing within the vertex range, as the binary search
+     * of an edge weight requires, and non-zero weights, since zero stands for no edge.
+     */
+    private static void validate(IntBuffer offsets, IntBuffer targets, IntBuffer weights, Header header) {
+        int vertexCount = header.vertexCount();
+        if (offsets.get(0) != 0) {
+            throw new IllegalArgumentException("Invalid row offset of vertex 0: " + offsets.get(0));
+        }
+        for (int vertex = 0; vertex < vertexCount; vertex++) {
+            int start = offsets.get(vertex);
+            int end = offsets.get(vertex + 1);
+            if (end < start || end > header.edgeCount()) {
+                throw new IllegalArgumentException("Invalid row offsets of vertex " + vertex + ": " + start + ".." + end);
+            }
+            int previous = -1;
+            for (int edge = start; edge < end; edge++) {
+                int target = targets.get(edge);
+                if (target <= previous || target >= vertexCount) {
+                    throw new IllegalArgumentException("Invalid or unsorted edge target of vertex " + vertex + ": " + target);
+                }
+                if (weights.get(edge) == 0) {
+                    throw new IllegalArgumentException("Zero edge weight from vertex " + vertex + " to " + target);
+                }
+                previous = target;
+            }
+        }
+        if (offsets.get(vertexCount) != header.edgeCount()) {
+            throw new IllegalArgumentException("Row offsets end at " + offsets.get(vertexCount)
+                    + " instead of the edge count " + header.edgeCount());
+        }
+    }
+
+    private static IntBuffer mapInts(FileChannel channel, long position, int count) throws IOException {
+        return channel.map(FileChannel.MapMode.READ_ONLY, position, (long) Integer.BYTES * count)
+                .order(ByteOrder.LITTLE_ENDIAN)
+                .asIntBuffer();
+    }
+
+    private static void writeSection(FileChannel channel, ByteBuffer buffer, int count, IntUnaryOperator valueAt) throws IOException {
+        for (int i = 0; i < count; i++) {
+            if (buffer.remaining() < Integer.BYTES) {
+                buffer.flip();
+                writeFully(channel, buffer);
+                buffer.clear();
+            }
+            buffer.putInt(valueAt.applyAsInt(i));
+        }
+        buffer.flip();
+        writeFully(channel, buffer);
+        buffer.clear();
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package graph;
+
+/**
+ * Compressed sparse row (CSR) storage of the graph edges.
+ * Edges of vertex {@code v} occupy the index range {@code [rowStart(v), rowEnd(v))}
+ * of the target and weight arrays, sorted by target vertex.
+ */
+interface CompressedAdjacency {
+    int vertexCount();
+
+    int edgeCount();
+
+    int rowStart(int vertex);
+
+    int rowEnd(int vertex);
+
+    int target(int edgeIndex);
+
+    int weight(int edgeIndex);
+
+    /**
+     * Returns the weight of the edge between two vertices, or zero if there is no such edge.
+     */
+    default int weight(int sourceVertex, int targetVertex) {
+        int low = rowStart(sourceVertex);
+        int high = rowEnd(sourceVertex) - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int middleTarget = target(middle);
+            if (middleTarget < targetVertex) {
+                low = middle + 1;
+            } else if (middleTarget > targetVertex) {
+                high = middle - 1;
+            } else {
+                return weight(middle);
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Expands the edges into a dense adjacency matrix.
+     */
+    default int[][] toMatrix() {
+        int vertexCount = vertexCount();
+        int[][] matrix = new int[vertexCount][vertexCount];
+        for (int i = 0; i < vertexCount; i++) {
+            for (int e = rowStart(i); e < rowEnd(i); e++) {
+                matrix[i][target(e)] = weight(e);
+            }
+        }
+        return matrix;
+    }
+}
@@ -0,0 +1,15 @@
+package graph;
+
+/**
+ * Callback receiving the outgoing edges of a vertex without boxing.
+ */
+@FunctionalInterface
+public interface EdgeVisitor {
+    /**
+     * Called for every outgoing edge in ascending order of the target vertex.
+     *
+     * @param targetVertex the index of the target vertex
+     * @param weight       the weight of the edge
+     */
+    void visit(int targetVertex, int weight);
+}
@@ -2,19 +2,37 @@ package graph;
 
 import java.io.File;
 import java.io.FileNotFoundException;
+import java.io.IOException;
 import java.io.PrintWriter;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Scanner;
+import java.util.function.IntConsumer;
 
 /**
  * Represents a weighted graph using an adjacency matrix.
  * Supports both directed and undirected graphs.
+ * Sparse graphs are kept in compressed sparse row form instead of the matrix,
+ * so their memory scales with the number of edges.
  */
 public class Graph {
+    /** Graphs with a smaller share of non-zero matrix cells are stored in compressed form */
+    private static final double SPARSE_DENSITY_THRESHOLD = 0.25;
+
     private int[][] adjacencyMatrix;
+    private CompressedAdjacency compressedAdjacency;
     private int vertexCount;
     private boolean isDirected;
+    private int edgeCount = -1;
+    private int minEdgeWeight;
+    private int maxEdgeWeight;
+    private Graph transposedGraph;
+    private long fingerprint;
+    private int version;
 
     public Graph() {}
 
@@ -31,7 +49,7 @@ public class Graph {
 
         for (int i = 0; i < vertexCount; i++) {
             for (int j = 0; j < vertexCount; j++) {
-                graphRepresentation.append(adjacencyMatrix[i][j]).append(" ");
+                graphRepresentation.append(weight(i, j)).append(" ");
             }
             graphRepresentation.append("\n");
         }
@@ -41,6 +59,7 @@ public class Graph {
     /**
      * Loads a graph from a file. The first line contains the number of vertices,
      * and the following lines contain the adjacency matrix.
+     * The storage form is chosen by the share of non-zero cells in the matrix.
      *
      * @param filename the path to the input file
      * @throws FileNotFoundException if the file does not exist
@@ -51,19 +70,99 @@ public class Graph {
             if (vertexCount < 1) {
                 throw new IllegalArgumentException("Invalid vertex count: " + vertexCount);
             }
-            adjacencyMatrix = new int[vertexCount][vertexCount];
+            HeapCompressedAdjacency.Builder builder = new HeapCompressedAdjacency.Builder(vertexCount);
 
             for (int i = 0; i < vertexCount; i++) {
                 String line = scanner.nextLine().trim();
                 String[] values = line.split("\\s+");
                 for (int j = 0; j < vertexCount; j++) {
-                    adjacencyMatrix[i][j] = Integer.parseInt(values[j]);
+                    int weight = Integer.parseInt(values[j]);
+                    if (weight != 0) {
+                        builder.addEdge(j, weight);
+                    }
                 }
+                builder.endRow();
             }
+            setEdges(builder.build());
             isDirected = !isSymmetricMatrix();
         }
     }
 
+    /**
+     * Loads a graph in the same text format as {@link #loadGraphFromFile(String)}, parsing
+     * line-aligned chunks of the file in parallel. Produces the same graph, including the
+     * directed flag, which is derived while parsing instead of walking the matrix again.
+     *
+     * @param filename the path to the input file
+     * @throws IOException if the file does not exist or cannot be read
+     */
+    public void loadGraphFromFileParallel(String filename) throws IOException {
+        ParallelTextGraphReader.Result result = ParallelTextGraphReader.read(filename);
+        setEdges(result.edges());
+        isDirected = result.directed();
+    }
+
+    /**
+     * Loads a graph from the binary format written by {@link #exportGraphToBinary(String)}.
+     * The edges are memory-mapped rather than read, so the graph is usable right away
+     * and its pages are shared between processes that load the same file.
+     *
+     * @param filename the path to the binary graph file
+     * @throws IOException if the file cannot be opened or mapped
+     */
+    public void loadGraphFromBinaryFile(String filename) throws IOException {
+        try (FileChannel channel = FileChannel.open(Path.of(filename), StandardOpenOption.READ)) {
+            BinaryGraphFormat.Header header = BinaryGraphFormat.readHeader(channel);
+            compressedAdjacency = BinaryGraphFormat.map(channel, header);
+            adjacencyMatrix = null;
+            transposedGraph = null;
+            fingerprint = 0;
+            version++;
+            vertexCount = header.vertexCount();
+            isDirected = header.directed();
+            edgeCount = header.edgeCount();
+            minEdgeWeight = header.minEdgeWeight();
+            maxEdgeWeight = header.maxEdgeWeight();
+            if (maxEdgeWeight == 0 && edgeCount > 0) {
+                // Written before the maximal weight was stored: the statistics are gathered on first use
+                edgeCount = -1;
+            }
+        }
+    }
+
+    /**
+     * Exports the graph to the compact binary format with a header
+     * (vertex count, directed flag, minimal weight, edge count) and compressed sparse rows.
+     *
+     * @param filename the path to the output file
+     * @throws IOException if the file cannot be written
+     */
+    public void exportGraphToBinary(String filename) throws IOException {
+        try (FileChannel channel = FileChannel.open(Path.of(filename), StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            BinaryGraphFormat.write(channel, compressedEdges(), isDirected, getMinEdgeWeight(), getMaxEdgeWeight());
+        }
+    }
+
+    /**
+     * Replaces the graph contents with the given edges, choosing the storage form by density.
+     */
+    private void setEdges(CompressedAdjacency edges) {
+        vertexCount = edges.vertexCount();
+        double density = (double) edges.edgeCount() / ((double) vertexCount * vertexCount);
+        if (density < SPARSE_DENSITY_THRESHOLD) {
+            compressedAdjacency = edges;
+            adjacencyMatrix = null;
+        } else {
+            adjacencyMatrix = edges.toMatrix();
+            compressedAdjacency = null;
+        }
+        edgeCount = -1;
+        transposedGraph = null;
+        fingerprint = 0;
+        version++;
+    }
+
     /**
      * Exports the graph to a DOT format for visualization.
      *
@@ -75,19 +174,18 @@ public class Graph {
             String graphType = isDirected ? "digraph" : "graph";
             writer.write(graphType + " graphname {\n");
 
+            NeighborCursor cursor = newNeighborCursor();
             for (int i = 0; i < vertexCount; i++) {
-                for (int j = (isDirected ? 0 : i); j < vertexCount; j++) {
-                    if (adjacencyMatrix[i][j] != 0) {
-                        StringBuilder edge = new StringBuilder();
-                        if (i == j) {
-                            edge.append("\t").append(i).append(isDirected ? " -> " : " -- ").append(i)
-                                    .append(" [label=\"").append(adjacencyMatrix[i][j]).append("\"]");
-                        } else {
-                            edge.append("\t").append(i).append(isDirected ? " -> " : " -- ").append(j)
-                                    .append(" [label=\"").append(adjacencyMatrix[i][j]).append("\"]");
-                        }
-                        writer.write(edge.append(";\n").toString());
+                cursor.reset(i);
+                while (cursor.next()) {
+                    int j = cursor.target();
+                    if (!isDirected && j < i) {
+                        continue;
                     }
+                    StringBuilder edge = new StringBuilder();
+                    edge.append("\t").append(i).append(isDirected ? " -> " : " -- ").append(j)
+                            .append(" [label=\"").append(cursor.weight()).append("\"]");
+                    writer.write(edge.append(";\n").toString());
                 }
             }
             writer.write("}\n");
@@ -103,6 +201,26 @@ public class Graph {
         return vertexCount;
     }
 
+    /**
+     * Returns the number of non-zero cells in the adjacency matrix.
+     * An undirected edge is counted once in each direction.
+     *
+     * @return the number of stored edges
+     */
+    public int getEdgeCount() {
+        computeEdgeStatistics();
+        return edgeCount;
+    }
+
+    /**
+     * Returns whether the graph is kept in compressed sparse row form instead of the adjacency matrix.
+     *
+     * @return true if the compressed storage is used
+     */
+    public boolean isCompressed() {
+        return adjacencyMatrix == null && compressedAdjacency != null;
+    }
+
     /**
      * Returns whether the graph is directed.
      *
@@ -123,12 +241,127 @@ public class Graph {
             throw new IllegalArgumentException("Invalid vertex index: " + vertex);
         }
         List<Integer> adjacentVertices = new ArrayList<>();
+        forEachAdjacentVertex(vertex, adjacentVertices::add);
+        return adjacentVertices;
+    }
+
+    /**
+     * Passes every adjacent vertex of the specified vertex to the action, in ascending order,
+     * without allocating a list or boxing the indices.
+     *
+     * @param vertex the vertex index
+     * @param action the action receiving adjacent vertex indices
+     */
+    public void forEachAdjacentVertex(int vertex, IntConsumer action) {
+        forEachEdge(vertex, (targetVertex, weight) -> action.accept(targetVertex));
+    }
+
+    /**
+     * Passes every outgoing edge of the specified vertex to the visitor, in ascending order of the target.
+     *
+     * @param vertex  the vertex index
+     * @param visitor the visitor receiving target vertices and edge weights
+     */
+    public void forEachEdge(int vertex, EdgeVisitor visitor) {
+        if (vertex < 0 || vertex >= vertexCount) {
+            throw new IllegalArgumentException("Invalid vertex index: " + vertex);
+        }
+        if (adjacencyMatrix == null) {
+            for (int e = compressedAdjacency.rowStart(vertex); e < compressedAdjacency.rowEnd(vertex); e++) {
+                visitor.visit(compressedAdjacency.target(e), compressedAdjacency.weight(e));
+            }
+            return;
+        }
+        int[] row = adjacencyMatrix[vertex];
         for (int i = 0; i < vertexCount; i++) {
-            if (adjacencyMatrix[vertex][i] != 0) {
-                adjacentVertices.add(i);
+            if (row[i] != 0) {
+                visitor.visit(i, row[i]);
             }
         }
-        return adjacentVertices;
+    }
+
+    /**
+     * Returns the number of outgoing edges of the specified vertex.
+     *
+     * @param vertex the vertex index
+     * @return the out-degree of the vertex
+     */
+    public int getOutDegree(int vertex) {
+        if (vertex < 0 || vertex >= vertexCount) {
+            throw new IllegalArgumentException("Invalid vertex index: " + vertex);
+        }
+        if (adjacencyMatrix == null) {
+            return compressedAdjacency.rowEnd(vertex) - compressedAdjacency.rowStart(vertex);
+        }
+        int degree = 0;
+        for (int weight : adjacencyMatrix[vertex]) {
+            if (weight != 0) {
+                degree++;
+            }
+        }
+        return degree;
+    }
+
+    /**
+     * Returns the graph with every edge reversed, which lists the incoming edges of each vertex.
+     * It is built once per loaded graph; an undirected graph is its own transpose.
+     *
+     * @return the transposed graph
+     */
+    public synchronized Graph getTransposedGraph() {
+        if (!isDirected) {
+            return this;
+        }
+        if (transposedGraph == null) {
+            int[] rowOffsets = new int[vertexCount + 1];
+            NeighborCursor cursor = newNeighborCursor();
+            for (int i = 0; i < vertexCount; i++) {
+                cursor.reset(i);
+                while (cursor.next()) {
+                    rowOffsets[cursor.target() + 1]++;
+                }
+            }
+            for (int i = 0; i < vertexCount; i++) {
+                rowOffsets[i + 1] += rowOffsets[i];
+            }
+            int[] next = Arrays.copyOf(rowOffsets, vertexCount);
+            int[] targets = new int[rowOffsets[vertexCount]];
+            int[] weights = new int[targets.length];
+            for (int i = 0; i < vertexCount; i++) {
+                cursor.reset(i);
+                while (cursor.next()) {
+                    int position = next[cursor.target()]++;
+                    targets[position] = i;
+                    weights[position] = cursor.weight();
+                }
+            }
+            Graph transposed = new Graph();
+            transposed.setEdges(new HeapCompressedAdjacency(rowOffsets, targets, weights));
+            transposed.isDirected = true;
+            transposedGraph = transposed;
+        }
+        return transposedGraph;
+    }
+
+    /**
+     * Creates a reusable cursor over outgoing edges. The cursor is bound to the currently
+     * loaded graph and must be recreated after the graph is reloaded.
+     *
+     * @return a new neighbor cursor
+     */
+    public NeighborCursor newNeighborCursor() {
+        return new NeighborCursor(adjacencyMatrix, compressedAdjacency, vertexCount);
+    }
+
+    /**
+     * Checks whether the cursor was created for the graph as currently loaded,
+     * so that it can be kept instead of creating a new one.
+     *
+     * @param cursor the cursor to check, may be null
+     * @return true if the cursor walks the current edges of this graph
+     */
+    public boolean isCurrent(NeighborCursor cursor) {
+        return cursor != null && cursor.isOver(adjacencyMatrix, compressedAdjacency);
     }
 
     /**
@@ -142,7 +375,7 @@ public class Graph {
         if (sourceVertex < 0 || sourceVertex >= vertexCount || targetVertex < 0 || targetVertex >= vertexCount) {
             throw new IllegalArgumentException("Invalid vertex index: " + sourceVertex + " or " + targetVertex);
         }
-        return adjacencyMatrix[sourceVertex][targetVertex] != 0;
+        return weight(sourceVertex, targetVertex) != 0;
     }
 
     /**
@@ -156,21 +389,124 @@ public class Graph {
         if (sourceVertex < 0 || sourceVertex >= vertexCount || targetVertex < 0 || targetVertex >= vertexCount) {
             throw new IllegalArgumentException("Invalid vertex index: " + sourceVertex + " or " + targetVertex);
         }
-        return adjacencyMatrix[sourceVertex][targetVertex];
+        return weight(sourceVertex, targetVertex);
+    }
+
+    /**
+     * Retrieves the weight of the edge without validating the vertex indices.
+     * Intended for inner loops that have already validated their input.
+     *
+     * @param sourceVertex the index of the source vertex
+     * @param targetVertex the index of the target vertex
+     * @return the weight of the edge, or zero if there is no edge
+     */
+    public int getEdgeWeightUnchecked(int sourceVertex, int targetVertex) {
+        return weight(sourceVertex, targetVertex);
     }
 
     /**
      * Returns the minimal weight of the edge that exists it this graph, except zero
      */
     public int getMinEdgeWeight() {
-        int minWeight = Integer.MAX_VALUE;
+        computeEdgeStatistics();
+        return minEdgeWeight;
+    }
+
+    /**
+     * Returns the maximal weight of the edges in this graph, or zero if it has none.
+     * Together with {@link #getMinEdgeWeight()} it bounds the range of edge weights.
+     */
+    public int getMaxEdgeWeight() {
+        computeEdgeStatistics();
+        return maxEdgeWeight;
+    }
+
+    /**
+     * Returns a 64-bit hash of the vertex count and all edges with their weights, computed once
+     * per loaded graph. Equal graphs have equal fingerprints regardless of the storage form,
+     * so it can be used to check that data derived from a graph still matches it.
+     *
+     * @return the fingerprint of the graph contents
+     */
+    public long getFingerprint() {
+        if (fingerprint == 0) {
+            long hash = mix(vertexCount);
+            NeighborCursor cursor = newNeighborCursor();
+            for (int i = 0; i < vertexCount; i++) {
+                cursor.reset(i);
+                while (cursor.next()) {
+                    hash = mix(hash ^ ((long) i << 32 | cursor.target()));
+                    hash = mix(hash ^ cursor.weight());
+                }
+            }
+            fingerprint = hash != 0 ? hash : 1;
+        }
+        return fingerprint;
+    }
+
+    /**
+     * Returns the number of times a graph was loaded into this object, so that results cached
+     * for this object can be told apart from results for its earlier contents without hashing the edges.
+     *
+     * @return the version of the graph contents
+     */
+    public int getVersion() {
+        return version;
+    }
+
+    private static long mix(long value) {
+        value = (value ^ (value >>> 33)) * 0xFF51AFD7ED558CCDL;
+        value = (value ^ (value >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        return value ^ (value >>> 33);
+    }
+
+    private CompressedAdjacency compressedEdges() {
+        if (adjacencyMatrix == null) {
+            return compressedAdjacency;
+        }
+        HeapCompressedAdjacency.Builder builder = new HeapCompressedAdjacency.Builder(vertexCount);
         for (int i = 0; i < vertexCount; i++) {
             for (int j = 0; j < vertexCount; j++) {
-                if (adjacencyMatrix[i][j] != 0 && adjacencyMatrix[i][j] < minWeight)
-                    minWeight = adjacencyMatrix[i][j];
+                if (adjacencyMatrix[i][j] != 0) {
+                    builder.addEdge(j, adjacencyMatrix[i][j]);
+                }
+            }
+            builder.endRow();
+        }
+        return builder.build();
+    }
+
+    private int weight(int sourceVertex, int targetVertex) {
+        if (adjacencyMatrix == null) {
+            return compressedAdjacency.weight(sourceVertex, targetVertex);
+        }
+        return adjacencyMatrix[sourceVertex][targetVertex];
+    }
+
+    /**
+     * Counts the edges and finds the minimal and maximal weights once per loaded graph.
+     */
+    private void computeEdgeStatistics() {
+        if (edgeCount >= 0) {
+            return;
+        }
+        int count = 0;
+        int minWeight = Integer.MAX_VALUE;
+        int maxWeight = Integer.MIN_VALUE;
+        NeighborCursor cursor = newNeighborCursor();
+        for (int i = 0; i < vertexCount; i++) {
+            cursor.reset(i);
+            while (cursor.next()) {
+                count++;
+                if (cursor.weight() < minWeight)
+                    minWeight = cursor.weight();
+                if (cursor.weight() > maxWeight)
+                    maxWeight = cursor.weight();
             }
         }
-        return minWeight;
+        minEdgeWeight = minWeight;
+        maxEdgeWeight = count > 0 ? maxWeight : 0;
+        edgeCount = count;
     }
 
     /**
@@ -179,6 +515,9 @@ public class Graph {
      * @return true if the matrix is symmetric, false otherwise
      */
     private boolean isSymmetricMatrix() {
+        if (adjacencyMatrix == null) {
+            return isSymmetricCompressed();
+        }
         for (int i = 0; i < vertexCount; i++) {
             for (int j = i + 1; j < vertexCount; j++) {
                 if (adjacencyMatrix[i][j] != adjacencyMatrix[j][i]) {
@@ -188,4 +527,24 @@ public class Graph {
         }
         return true;
     }
+
+    private boolean isSymmetricCompressed() {
+        int diagonal = 0;
+        int upper = 0;
+        for (int i = 0; i < vertexCount; i++) {
+            for (int e = compressedAdjacency.rowStart(i); e < compressedAdjacency.rowEnd(i); e++) {
+                int j = compressedAdjacency.target(e);
+                if (j == i) {
+                    diagonal++;
+                } else if (j > i) {
+                    upper++;
+                    if (compressedAdjacency.weight(j, i) != compressedAdjacency.weight(e)) {
+                        return false;
+                    }
+                }
+            }
+        }
+        // Every upper edge has its mirror, so the lower triangle can only differ by extra edges
+        return compressedAdjacency.edgeCount() == diagonal + 2 * upper;
+    }
 }
@@ -0,0 +1,32 @@
+package graph;
+
+import java.io.IOException;
+
+/**
+ * Converts graphs from the text adjacency matrix format to the binary format
+ * that {@link Graph#loadGraphFromBinaryFile(String)} maps into memory.
+ */
+public final class GraphFileConverter {
+    private GraphFileConverter() {}
+
+    /**
+     * Reads a text graph file and writes it in the binary format.
+     *
+     * @param textFilename   the path to the text adjacency matrix file
+     * @param binaryFilename the path to the binary file to create
+     * @throws IOException if one of the files cannot be read or written
+     */
+    public static void convertTextToBinary(String textFilename, String binaryFilename) throws IOException {
+        Graph graph = new Graph();
+        graph.loadGraphFromFile(textFilename);
+        graph.exportGraphToBinary(binaryFilename);
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.out.println("Usage: GraphFileConverter <input.txt> <output.bin>");
+            return;
+        }
+        convertTextToBinary(args[0], args[1]);
+    }
+}
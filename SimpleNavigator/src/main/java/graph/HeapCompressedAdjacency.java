@@ -0,0 +1,98 @@
+package graph;
+
+import java.util.Arrays;
+
+/**
+ * Compressed sparse row storage kept in heap arrays.
+ */
+final class HeapCompressedAdjacency implements CompressedAdjacency {
+    private final int[] rowOffsets;
+    private final int[] targets;
+    private final int[] weights;
+
+    HeapCompressedAdjacency(int[] rowOffsets, int[] targets, int[] weights) {
+        this.rowOffsets = rowOffsets;
+        this.targets = targets;
+        this.weights = weights;
+    }
+
+    @Override
+    public int vertexCount() {
+        return rowOffsets.length - 1;
+    }
+
+    @Override
+    public int edgeCount() {
+        return rowOffsets[rowOffsets.length - 1];
+    }
+
+    @Override
+    public int rowStart(int vertex) {
+        return rowOffsets[vertex];
+    }
+
+    @Override
+    public int rowEnd(int vertex) {
+        return rowOffsets[vertex + 1];
+    }
+
+    @Override
+    public int target(int edgeIndex) {
+        return targets[edgeIndex];
+    }
+
+    @Override
+    public int weight(int edgeIndex) {
+        return weights[edgeIndex];
+    }
+
+    @Override
+    public int weight(int sourceVertex, int targetVertex) {
+        int index = Arrays.binarySearch(targets, rowOffsets[sourceVertex], rowOffsets[sourceVertex + 1], targetVertex);
+        return index >= 0 ? weights[index] : 0;
+    }
+
+    /**
+     * Collects edges row by row. Targets of a row must be added in ascending order.
+     */
+    static final class Builder {
+        private final int[] rowOffsets;
+        private int[] targets;
+        private int[] weights;
+        private int rowCount;
+        private int edgeCount;
+
+        Builder(int vertexCount) {
+            rowOffsets = new int[vertexCount + 1];
+            targets = new int[Math.max(16, vertexCount)];
+            weights = new int[targets.length];
+        }
+
+        void addEdge(int targetVertex, int weight) {
+            if (edgeCount == targets.length) {
+                if (targets.length == Integer.MAX_VALUE - 8) {
+                    throw new IllegalArgumentException("Too many edges for compressed storage");
+                }
+                int capacity = (int) Math.min(Integer.MAX_VALUE - 8, targets.length * 2L);
+                targets = Arrays.copyOf(targets, capacity);
+                weights = Arrays.copyOf(weights, capacity);
+            }
+            targets[edgeCount] = targetVertex;
+            weights[edgeCount] = weight;
+            edgeCount++;
+        }
+
+        void endRow() {
+            rowOffsets[++rowCount] = edgeCount;
+        }
+
+        int edgeCount() {
+            return edgeCount;
+        }
+
+        HeapCompressedAdjacency build() {
+            return new HeapCompressedAdjacency(rowOffsets,
+                    Arrays.copyOf(targets, edgeCount), Arrays.copyOf(weights, edgeCount));
+        }
+    }
+}
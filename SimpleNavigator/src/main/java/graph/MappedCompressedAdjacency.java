@@ -0,0 +1,49 @@
+package graph;
+
+import java.nio.IntBuffer;
+
+/**
+ * Compressed sparse row storage backed by buffers mapped from a binary graph file.
+ * Pages are loaded lazily by the operating system and shared between processes mapping the same file.
+ */
+final class MappedCompressedAdjacency implements CompressedAdjacency {
+    private final IntBuffer rowOffsets;
+    private final IntBuffer targets;
+    private final IntBuffer weights;
+
+    MappedCompressedAdjacency(IntBuffer rowOffsets, IntBuffer targets, IntBuffer weights) {
+        this.rowOffsets = rowOffsets;
+        this.targets = targets;
+        this.weights = weights;
+    }
+
+    @Override
+    public int vertexCount() {
+        return rowOffsets.limit() - 1;
+    }
+
+    @Override
+    public int edgeCount() {
+        return targets.limit();
+    }
+
+    @Override
+    public int rowStart(int vertex) {
+        return rowOffsets.get(vertex);
+    }
+
+    @Override
+    public int rowEnd(int vertex) {
+        return rowOffsets.get(vertex + 1);
+    }
+
+    @Override
+    public int target(int edgeIndex) {
+        return targets.get(edgeIndex);
+    }
+
+    @Override
+    public int weight(int edgeIndex) {
+        return weights.get(edgeIndex);
+    }
+}
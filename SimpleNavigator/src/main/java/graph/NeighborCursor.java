@@ -0,0 +1,94 @@
+package graph;
+
+/**
+ * Reusable cursor over the outgoing edges of a vertex, yielding the target vertex and weight
+ * as primitives. Obtained from {@link Graph#newNeighborCursor()} and valid until the graph is reloaded.
+ * <pre>
+ * cursor.reset(vertex);
+ * while (cursor.next()) {
+ *     use(cursor.target(), cursor.weight());
+ * }
+ * </pre>
+ */
+public final class NeighborCursor {
+    private final int[][] adjacencyMatrix;
+    private final CompressedAdjacency compressedAdjacency;
+    private final int vertexCount;
+    private int[] row;
+    private int position;
+    private int end;
+    private int target = -1;
+    private int weight;
+
+    NeighborCursor(int[][] adjacencyMatrix, CompressedAdjacency compressedAdjacency, int vertexCount) {
+        this.adjacencyMatrix = adjacencyMatrix;
+        this.compressedAdjacency = compressedAdjacency;
+        this.vertexCount = vertexCount;
+    }
+
+    /**
+     * Positions the cursor before the first edge of the specified vertex.
+     *
+     * @param vertex the vertex index
+     * @return this cursor
+     */
+    public NeighborCursor reset(int vertex) {
+        if (vertex < 0 || vertex >= vertexCount) {
+            throw new IllegalArgumentException("Invalid vertex index: " + vertex);
+        }
+        if (adjacencyMatrix != null) {
+            row = adjacencyMatrix[vertex];
+            position = 0;
+            end = vertexCount;
+        } else {
+            position = compressedAdjacency.rowStart(vertex);
+            end = compressedAdjacency.rowEnd(vertex);
+        }
+        target = -1;
+        return this;
+    }
+
+    /**
+     * Advances to the next edge.
+     *
+     * @return true if the cursor points to an edge, false if the edges are exhausted
+     */
+    public boolean next() {
+        if (adjacencyMatrix != null) {
+            while (position < end) {
+                int index = position++;
+                if (row[index] != 0) {
+                    target = index;
+                    weight = row[index];
+                    return true;
+                }
+            }
+            return false;
+        }
+        if (position < end) {
+            target = compressedAdjacency.target(position);
+            weight = compressedAdjacency.weight(position);
+            position++;
+            return true;
+        }
+        return false;
+    }
+
+    boolean isOver(int[][] adjacencyMatrix, CompressedAdjacency compressedAdjacency) {
+        return this.adjacencyMatrix == adjacencyMatrix && this.compressedAdjacency == compressedAdjacency;
+    }
+
+    /**
+     * Returns the target vertex of the current edge.
+     */
+    public int target() {
+        return target;
+    }
+
+    /**
+     * Returns the weight of the current edge.
+     */
+    public int weight() {
+        return weight;
+    }
+}
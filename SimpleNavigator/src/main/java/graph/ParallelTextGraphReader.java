@@ -0,0 +1,380 @@
+package graph;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Reads the text adjacency matrix format in parallel.
+ * <p>
+ * The file is mapped in line-aligned chunks that are tokenized concurrently into
+ * compressed sparse row fragments and stitched together afterwards. Symmetry is checked
+ * while parsing: every chunk accumulates polynomial fingerprints of the matrix and of its
+ * transpose over the prime field 2^61 - 1 at random points, and the matrix is treated as
+ * symmetric when both fingerprints agree. A non-symmetric matrix collides with probability
+ * below {@code 2 * vertexCount / 2^61}.
+ */
+final class ParallelTextGraphReader {
+    private static final long MODULUS = (1L << 61) - 1;
+    private static final int MIN_CHUNK_SIZE = 1 << 20;
+    private static final int MAX_CHUNK_SIZE = 1 << 30;
+    private static final int CHUNKS_PER_THREAD = 4;
+    private static final int SCAN_BUFFER_SIZE = 1 << 12;
+
+    record Result(HeapCompressedAdjacency edges, boolean directed) {}
+
+    private final FileChannel channel;
+    private int vertexCount;
+    private long[] rowPowers;
+    private long[] columnPowers;
+
+    private ParallelTextGraphReader(FileChannel channel) {
+        this.channel = channel;
+    }
+
+    static Result read(String filename) throws IOException {
+        try (FileInputStream input = new FileInputStream(filename);
+             FileChannel channel = input.getChannel()) {
+            return new ParallelTextGraphReader(channel).read();
+        }
+    }
+
+    private Result read() throws IOException {
+        long bodyStart = readVertexCount();
+        long[] bounds = chunkBounds(bodyStart, channel.size());
+        preparePowers();
+
+        Chunk[] chunks;
+        try {
+            chunks = IntStream.range(0, bounds.length - 1).parallel()
+                    .mapToObj(i -> parseChunk(bounds[i], bounds[i + 1]))
+                    .toArray(Chunk[]::new);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        return stitch(chunks);
+    }
+
+    /**
+     * Parses the first line and returns the position where the matrix rows begin.
+     */
+    private long readVertexCount() throws IOException {
+        long lineEnd = findLineEnd(0, channel.size());
+        ByteBuffer line = ByteBuffer.allocate((int) Math.min(lineEnd, SCAN_BUFFER_SIZE));
+        channel.read(line, 0);
+        Tokenizer tokenizer = new Tokenizer(line, 0, line.position());
+        if (!tokenizer.hasNextInLine()) {
+            throw new NumberFormatException("Missing vertex count");
+        }
+        vertexCount = tokenizer.nextInt();
+        if (tokenizer.hasNextInLine()) {
+            throw new NumberFormatException("Unexpected value after the vertex count");
+        }
+        if (vertexCount < 1) {
+            throw new IllegalArgumentException("Invalid vertex count: " + vertexCount);
+        }
+        return Math.min(lineEnd + 1, channel.size());
+    }
+
+    /**
+     * Splits the byte range into chunks that end right after a line break.
+     */
+    private long[] chunkBounds(long start, long end) throws IOException {
+        long length = end - start;
+        int threads = ForkJoinPool.getCommonPoolParallelism() + 1;
+        long chunkCount = Math.max(1, Math.min((long) threads * CHUNKS_PER_THREAD, length / MIN_CHUNK_SIZE));
+        chunkCount = Math.max(chunkCount, (length + MAX_CHUNK_SIZE - 1) / MAX_CHUNK_SIZE);
+
+        long[] bounds = new long[(int) chunkCount + 1];
+        bounds[0] = start;
+        for (int i = 1; i < chunkCount; i++) {
+            long tentative = Math.max(start + length * i / chunkCount, bounds[i - 1]);
+            bounds[i] = Math.min(findLineEnd(tentative, end) + 1, end);
+        }
+        bounds[(int) chunkCount] = end;
+        return bounds;
+    }
+
+    private long findLineEnd(long position, long end) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(SCAN_BUFFER_SIZE);
+        while (position < end) {
+            buffer.clear();
+            int read = channel.read(buffer, position);
+            if (read <= 0) {
+                break;
+            }
+            for (int i = 0; i < read; i++) {
+                if (buffer.get(i) == '\n') {
+                    return position + i;
+                }
+            }
+            position += read;
+        }
+        return end;
+    }
+
+    private void preparePowers() {
+        SplittableRandom random = new SplittableRandom();
+        long rowPoint = 2 + random.nextLong(MODULUS - 2);
+        long columnPoint = 2 + random.nextLong(MODULUS - 2);
+        rowPowers = new long[vertexCount];
+        columnPowers = new long[vertexCount];
+        rowPowers[0] = 1;
+        columnPowers[0] = 1;
+        for (int i = 1; i < vertexCount; i++) {
+            rowPowers[i] = multiply(rowPowers[i - 1], rowPoint);
+            columnPowers[i] = multiply(columnPowers[i - 1], columnPoint);
+        }
+    }
+
+    private Chunk parseChunk(long start, long end) {
+        Chunk chunk = new Chunk();
+        if (start >= end) {
+            return chunk;
+        }
+        if (end - start > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Line is too long at position " + start);
+        }
+        MappedByteBuffer buffer;
+        try {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        Tokenizer tokenizer = new Tokenizer(buffer, 0, buffer.limit());
+        while (tokenizer.hasNextLine()) {
+            chunk.parseRow(tokenizer);
+        }
+        return chunk;
+    }
+
+    private Result stitch(Chunk[] chunks) {
+        int[] rowOffsets = new int[vertexCount + 1];
+        int[] chunkRowBase = new int[chunks.length];
+        int[] chunkEdgeBase = new int[chunks.length];
+        int row = 0;
+        long edgeCount = 0;
+        boolean extraRows = false;
+        for (int c = 0; c < chunks.length; c++) {
+            Chunk chunk = chunks[c];
+            chunkRowBase[c] = row;
+            chunkEdgeBase[c] = (int) edgeCount;
+            for (int r = 0; r < chunk.rowCount; r++, row++) {
+                if (row >= vertexCount) {
+                    extraRows |= chunk.rowEdgeCounts[r] != 0;
+                    continue;
+                }
+                if (r == chunk.firstMalformedRow) {
+                    throw chunk.error;
+                }
+                edgeCount += chunk.rowEdgeCounts[r];
+                rowOffsets[row + 1] = (int) Math.min(edgeCount, Integer.MAX_VALUE);
+            }
+        }
+        if (row < vertexCount) {
+            throw new IllegalArgumentException("Expected " + vertexCount + " rows, found " + row);
+        }
+        if (edgeCount > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Too many edges for compressed storage");
+        }
+
+        int[] targets = new int[(int) edgeCount];
+        int[] weights = new int[(int) edgeCount];
+        long matrixFingerprint = 0;
+        long transposeFingerprint = 0;
+        for (int c = 0; c < chunks.length; c++) {
+            Chunk chunk = chunks[c];
+            int base = chunkRowBase[c];
+            if (base >= vertexCount) {
+                break;
+            }
+            int length = Math.min(chunk.edgeCount, (int) (edgeCount - chunkEdgeBase[c]));
+            System.arraycopy(chunk.targets, 0, targets, chunkEdgeBase[c], length);
+            System.arraycopy(chunk.weights, 0, weights, chunkEdgeBase[c], length);
+            matrixFingerprint = add(matrixFingerprint, multiply(rowPowers[base], chunk.matrixFingerprint));
+            transposeFingerprint = add(transposeFingerprint, multiply(columnPowers[base], chunk.transposeFingerprint));
+        }
+
+        HeapCompressedAdjacency edges = new HeapCompressedAdjacency(rowOffsets, targets, weights);
+        if (extraRows) {
+            // Fingerprints of the ignored trailing rows are mixed into their chunk
+            return new Result(edges, !isSymmetric(edges));
+        }
+        return new Result(edges, matrixFingerprint != transposeFingerprint);
+    }
+
+    private static boolean isSymmetric(CompressedAdjacency edges) {
+        for (int i = 0; i < edges.vertexCount(); i++) {
+            for (int e = edges.rowStart(i); e < edges.rowEnd(i); e++) {
+                if (edges.weight(edges.target(e), i) != edges.weight(e)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private static long multiply(long a, long b) {
+        long low = a * b;
+        long high = Math.multiplyHigh(a, b);
+        long sum = (low & MODULUS) + ((low >>> 61) | (high << 3));
+        return reduce(sum);
+    }
+
+    private static long add(long a, long b) {
+        return reduce(a + b);
+    }
+
+    private static long reduce(long value) {
+        long result = (value & MODULUS) + (value >>> 61);
+        return result >= MODULUS ? result - MODULUS : result;
+    }
+
+    /**
+     * Compressed rows parsed from one chunk, with row indices local to the chunk.
+     */
+    private final class Chunk {
+        private int rowCount;
+        private int[] rowEdgeCounts = new int[64];
+        private int edgeCount;
+        private int[] targets = new int[256];
+        private int[] weights = new int[256];
+        private long matrixFingerprint;
+        private long transposeFingerprint;
+        private int firstMalformedRow = -1;
+        private RuntimeException error;
+
+        private void parseRow(Tokenizer tokenizer) {
+            int row = rowCount;
+            if (row == rowEdgeCounts.length) {
+                rowEdgeCounts = Arrays.copyOf(rowEdgeCounts, row * 2);
+            }
+            int rowStart = edgeCount;
+            try {
+                for (int column = 0; column < vertexCount; column++) {
+                    if (!tokenizer.hasNextInLine()) {
+                        throw new IllegalArgumentException("Row has fewer than " + vertexCount + " values");
+                    }
+                    int weight = tokenizer.nextInt();
+                    if (weight != 0) {
+                        addEdge(row, column, weight);
+                    }
+                }
+            } catch (IllegalArgumentException e) {
+                // Rows past the vertex count are ignored, so report only once the global index is known
+                if (firstMalformedRow < 0) {
+                    firstMalformedRow = row;
+                    error = e;
+                }
+            }
+            tokenizer.skipLine();
+            rowEdgeCounts[row] = edgeCount - rowStart;
+            rowCount++;
+        }
+
+        private void addEdge(int row, int column, int weight) {
+            if (edgeCount == targets.length) {
+                targets = Arrays.copyOf(targets, edgeCount * 2);
+                weights = Arrays.copyOf(weights, edgeCount * 2);
+            }
+            targets[edgeCount] = column;
+            weights[edgeCount] = weight;
+            edgeCount++;
+            if (row < vertexCount) {
+                long value = weight & 0xFFFFFFFFL;
+                matrixFingerprint = add(matrixFingerprint,
+                        multiply(multiply(rowPowers[row], columnPowers[column]), value));
+                transposeFingerprint = add(transposeFingerprint,
+                        multiply(multiply(rowPowers[column], columnPowers[row]), value));
+            }
+        }
+    }
+
+    /**
+     * Hand-written tokenizer for whitespace separated decimal integers.
+     */
+    private static final class Tokenizer {
+        private final ByteBuffer buffer;
+        private final int end;
+        private int position;
+
+        private Tokenizer(ByteBuffer buffer, int start, int end) {
+            this.buffer = buffer;
+            this.position = start;
+            this.end = end;
+        }
+
+        private boolean hasNextLine() {
+            return position < end;
+        }
+
+        /**
+         * Skips blanks and reports whether another value precedes the end of the line.
+         */
+        private boolean hasNextInLine() {
+            while (position < end) {
+                byte c = buffer.get(position);
+                if (c == '\n') {
+                    return false;
+                }
+                if (c != ' ' && c != '\t' && c != '\r' && c != '\f' && c != 0x0B) {
+                    return true;
+                }
+                position++;
+            }
+            return false;
+        }
+
+        private int nextInt() {
+            int start = position;
+            boolean negative = false;
+            byte c = buffer.get(position);
+            if (c == '-' || c == '+') {
+                negative = c == '-';
+                position++;
+            }
+            long value = 0;
+            int digits = 0;
+            while (position < end) {
+                c = buffer.get(position);
+                if (c < '0' || c > '9') {
+                    break;
+                }
+                value = value * 10 + (c - '0');
+                if (value > Integer.MAX_VALUE + 1L) {
+                    throw new NumberFormatException("Value out of range at position " + start);
+                }
+                digits++;
+                position++;
+            }
+            if (digits == 0 || (position < end && !isSeparator(buffer.get(position)))) {
+                throw new NumberFormatException("Invalid number at position " + start);
+            }
+            if (negative) {
+                return (int) -value;
+            }
+            if (value > Integer.MAX_VALUE) {
+                throw new NumberFormatException("Value out of range at position " + start);
+            }
+            return (int) value;
+        }
+
+        private void skipLine() {
+            while (position < end && buffer.get(position) != '\n') {
+                position++;
+            }
+            position++;
+        }
+
+        private static boolean isSeparator(byte c) {
+            return c == ' ' || c == '\t' || c == '\r' || c == '\n' || c == '\f' || c == 0x0B;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package S21_collection;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.NoSuchElementException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IntCollectionTest {
+    @Test
+    void intStack_shouldPopInReverseOrderAndGrow() {
+        IntStack stack = new IntStack(2);
+        for (int i = 0; i < 100; i++) {
+            stack.push(i);
+        }
+        assertEquals(100, stack.getSize());
+        for (int i = 99; i >= 0; i--) {
+            assertEquals(i, stack.top());
+            assertEquals(i, stack.pop());
+        }
+        assertTrue(stack.isEmpty());
+        assertThrows(NoSuchElementException.class, stack::pop);
+    }
+
+    @Test
+    void intQueue_shouldKeepOrderWhenGrowingAcrossWrapAround() {
+        IntQueue queue = new IntQueue(4);
+        int next = 0;
+        int expected = 0;
+        for (int round = 0; round < 50; round++) {
+            queue.push(next++);
+            queue.push(next++);
+            queue.push(next++);
+            assertEquals(expected++, queue.pop());
+            assertEquals(next - 1, queue.back());
+        }
+        assertEquals(next - expected, queue.getSize());
+        while (!queue.isEmpty()) {
+            assertEquals(expected, queue.front());
+            assertEquals(expected++, queue.pop());
+        }
+        assertEquals(next, expected);
+        assertThrows(NoSuchElementException.class, queue::top);
+    }
+
+    @Test
+    void clear_shouldEmptyCollections() {
+        IntCollection[] collections = {new IntStack(), new IntQueue()};
+        for (IntCollection collection : collections) {
+            collection.push(1);
+            collection.push(2);
+            collection.clear();
+            assertTrue(collection.isEmpty());
+            collection.push(3);
+            assertEquals(3, collection.pop());
+        }
+    }
+}
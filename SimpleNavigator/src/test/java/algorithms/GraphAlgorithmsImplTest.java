@@ -1,6 +1,8 @@
 package algorithms;
 
 
+import data.ShortestPath;
+import data.TsmResult;
 import graph.Graph;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -8,10 +10,18 @@ import org.junit.jupiter.api.io.TempDir;
 
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.net.URL;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Arrays;
 import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.junit.jupiter.api.Assertions.assertIterableEquals;
@@ -320,6 +330,477 @@ class GraphAlgorithmsImplTest {
         assertEquals(0, distances[2][2]);
     }
 
+    @Test
+    void getShortestPathsBetweenAllVertices_withSeveralTiles_shouldMatchDijkstra() throws IOException {
+        graph.loadGraphFromFile(createTempFile(randomMatrix(150, 12, 100, 59)).toString());
+        int[][] distances = graphAlgorithms.getShortestPathsBetweenAllVertices(graph);
+
+        for (int from = 0; from < graph.getVertexCount(); from++) {
+            for (int to = 0; to < graph.getVertexCount(); to++) {
+                assertEquals(graphAlgorithms.getShortestPathBetweenVertices(graph, from, to), distances[from][to]);
+            }
+        }
+    }
+
+    @Test
+    void getShortestPathsBetweenAllVertices_withEveryStrategy_shouldReturnSameMatrix() throws IOException {
+        graph.loadGraphFromFile(createTempFile(randomMatrix(90, 10, 100, 67)).toString());
+        GraphAlgorithmsImpl floydWarshall = new GraphAlgorithmsImpl();
+        floydWarshall.setAllPairsStrategy(AllPairsStrategy.FLOYD_WARSHALL);
+        GraphAlgorithmsImpl dijkstra = new GraphAlgorithmsImpl();
+        dijkstra.setAllPairsStrategy(AllPairsStrategy.PARALLEL_DIJKSTRA);
+
+        assertArrayEquals(floydWarshall.getShortestPathsBetweenAllVertices(graph),
+                dijkstra.getShortestPathsBetweenAllVertices(graph));
+        assertEquals(AllPairsStrategy.FLOYD_WARSHALL, floydWarshall.getLastAllPairsStrategy());
+        assertEquals(AllPairsStrategy.PARALLEL_DIJKSTRA, dijkstra.getLastAllPairsStrategy());
+
+        graph.loadGraphFromFile(getResourcePath("graph_6_weighted_undirected_disconnected.txt"));
+        assertThrows(IllegalArgumentException.class, () -> dijkstra.getShortestPathsBetweenAllVertices(graph));
+    }
+
+    @Test
+    void getShortestPathsBetweenAllVertices_withAutoStrategy_shouldReportChoiceByDensity() throws IOException {
+        GraphAlgorithmsImpl algorithms = new GraphAlgorithmsImpl();
+        assertNull(algorithms.getLastAllPairsStrategy());
+
+        graph.loadGraphFromFile(getResourcePath("graph_15_weighted_directed_complete.txt"));
+        algorithms.getShortestPathsBetweenAllVertices(graph);
+        assertEquals(AllPairsStrategy.FLOYD_WARSHALL, algorithms.getLastAllPairsStrategy());
+
+        StringBuilder ring = new StringBuilder("2000\n");
+        for (int i = 0; i < 2000; i++) {
+            for (int j = 0; j < 2000; j++) {
+                ring.append(j == (i + 1) % 2000 ? "1 " : "0 ");
+            }
+            ring.append('\n');
+        }
+        graph.loadGraphFromFile(createTempFile(ring.toString()).toString());
+        int[][] distances = algorithms.getShortestPathsBetweenAllVertices(graph);
+        assertEquals(AllPairsStrategy.PARALLEL_DIJKSTRA, algorithms.getLastAllPairsStrategy());
+        assertEquals(1999, distances[1][0]);
+    }
+
+    @Test
+    void getDistanceMatrix_shouldUseNarrowestEntryWidth() throws IOException {
+        graph.loadGraphFromFile(getResourcePath("graph_5_weighted_undirected.txt"));
+        DistanceMatrix small = graphAlgorithms.getDistanceMatrix(graph);
+        assertEquals(1, small.getEntryWidth());
+        assertArrayEquals(graphAlgorithms.getShortestPathsBetweenAllVertices(graph), small.toArray());
+
+        graph.loadGraphFromFile(createTempFile(randomMatrix(70, 5, 5000, 71)).toString());
+        DistanceMatrix wide = graphAlgorithms.getDistanceMatrix(graph);
+        assertEquals(2, wide.getEntryWidth());
+        int[] row = new int[graph.getVertexCount()];
+        for (int from = 0; from < graph.getVertexCount(); from += 9) {
+            wide.readRow(from, row);
+            for (int to = 0; to < graph.getVertexCount(); to++) {
+                int expected = pathOrMinusOne(graph, from, to);
+                assertEquals(expected < 0 ? DistanceMatrix.UNREACHABLE : expected, row[to]);
+                assertEquals(row[to], wide.get(from, to));
+            }
+        }
+    }
+
+    @Test
+    void getDistanceMatrix_withFile_shouldMapAndReopen() throws IOException {
+        graph.loadGraphFromFile(getResourcePath("graph_6_weighted_undirected_disconnected.txt"));
+        GraphAlgorithmsImpl algorithms = new GraphAlgorithmsImpl();
+        Path file = tempDir.resolve("distances.bin");
+        DistanceMatrix mapped = algorithms.getDistanceMatrix(graph, file.toString());
+        DistanceMatrix reopened = DistanceMatrix.open(file.toString());
+
+        assertEquals(graph.getFingerprint(), reopened.getFingerprint());
+        assertArrayEquals(mapped.toArray(), reopened.toArray());
+        assertEquals(DistanceMatrix.UNREACHABLE, reopened.get(0, 5));
+        assertEquals(graphAlgorithms.getShortestPathBetweenVertices(graph, 0, 2), reopened.get(0, 2));
+        assertThrows(IllegalArgumentException.class, () -> reopened.get(0, 6));
+        assertEquals(0, partFileCount(tempDir));
+    }
+
+    @Test
+    void distanceMatrix_withGrowingDistances_shouldWidenEarlierRows() throws IOException {
+        int vertexCount = 2100;
+        Path file = tempDir.resolve("growing.bin");
+        DistanceMatrix matrix = DistanceMatrix.build(vertexCount, 1, file, (from, to, block) -> {
+            for (int i = from; i < to; i++) {
+                for (int j = 0; j < vertexCount; j++) {
+                    block[(i - from) * vertexCount + j] = i == j ? FloydWarshall.INFINITY : i * 50 + j % 7;
+                }
+            }
+        });
+
+        assertEquals(4, matrix.getEntryWidth());
+        assertEquals(3, matrix.get(0, 3));
+        assertEquals(DistanceMatrix.UNREACHABLE, matrix.get(10, 10));
+        assertEquals(2099 * 50 + 5, matrix.get(2099, 5));
+        assertEquals(150 + 4, DistanceMatrix.open(file.toString()).get(3, 4));
+        // The narrower files written before each widening are gone
+        try (Stream<Path> files = Files.list(tempDir)) {
+            assertEquals(List.of(file), files.toList());
+        }
+    }
+
+    @Test
+    void distanceMatrix_overDirectBound_shouldMapTemporaryFileUntilClosed() throws IOException {
+        int vertexCount = 300;
+        DistanceMatrix.RowProducer producer = (from, to, block) -> {
+            for (int i = from; i < to; i++) {
+                for (int j = 0; j < vertexCount; j++) {
+                    block[(i - from) * vertexCount + j] = i == j ? 0 : i + j * 400;
+                }
+            }
+        };
+        DistanceMatrix small = DistanceMatrix.build(vertexCount, 1, null, producer);
+        assertNull(small.temporaryFile());
+
+        DistanceMatrix large = DistanceMatrix.build(vertexCount, 1, null, producer, 1 << 16);
+        Path file = large.temporaryFile();
+        assertNotNull(file);
+        assertTrue(Files.exists(file));
+        assertEquals(4, large.getEntryWidth());
+        assertArrayEquals(small.toArray(), large.toArray());
+
+        large.close();
+        assertFalse(Files.exists(file));
+        assertThrows(IllegalStateException.class, () -> large.get(0, 1));
+        small.close();
+    }
+
+    @Test
+    void resultCache_shouldReturnStoredResultsAcrossInstances() throws IOException {
+        graph.loadGraphFromFile(getResourcePath("graph_5_weighted_undirected.txt"));
+        String directory = tempDir.resolve("cache").toString();
+        GraphAlgorithmsImpl first = new GraphAlgorithmsImpl();
+        first.setResultCache(new ResultCache(directory, 1 << 20));
+        int[][] distances = first.getShortestPathsBetweenAllVertices(graph);
+        int[][] tree = first.getLeastSpanningTree(graph);
+        TsmResult route = first.solveTravelingSalesmanProblem(graph);
+
+        Graph reloaded = new Graph();
+        reloaded.loadGraphFromFile(getResourcePath("graph_5_weighted_undirected.txt"));
+        GraphAlgorithmsImpl second = new GraphAlgorithmsImpl();
+        ResultCache cache = new ResultCache(directory, 1 << 20);
+        second.setResultCache(cache);
+        assertEquals(3, cache.getEntryCount());
+        assertArrayEquals(distances, second.getShortestPathsBetweenAllVertices(reloaded));
+        assertArrayEquals(tree, second.getLeastSpanningTree(reloaded));
+        TsmResult cachedRoute = second.solveTravelingSalesmanProblem(reloaded);
+        assertArrayEquals(route.getVertices(), cachedRoute.getVertices());
+        assertEquals(route.getDistance(), cachedRoute.getDistance());
+        assertEquals(3, cache.getHitCount());
+        assertEquals(0, cache.getMissCount());
+    }
+
+    @Test
+    void resultCache_withDamagedEntries_shouldCountMissesAndRecompute() throws IOException {
+        graph.loadGraphFromFile(getResourcePath("graph_5_weighted_undirected.txt"));
+        GraphAlgorithmsImpl algorithms = new GraphAlgorithmsImpl();
+        algorithms.setSpanningTreeStrategy(SpanningTreeStrategy.KRUSKAL);
+        ResultCache cache = new ResultCache(tempDir.resolve("cache").toString(), 1 << 20);
+        algorithms.setResultCache(cache);
+        long expectedWeight = graphAlgorithms.getLeastSpanningForest(graph).getTotalWeight();
+
+        // Rows in the entry format that do not describe a forest: one edge cannot span 5 vertices in 1 tree
+        String forestKey = ResultCache.key(graph, "spanning-forest", "kruskal");
+        cache.putRows(forestKey, graph, new int[][]{{0}, {1}, {7}}, 1);
+        assertEquals(expectedWeight, algorithms.getLeastSpanningForest(graph).getTotalWeight());
+        assertEquals(0, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+        assertEquals(expectedWeight, algorithms.getLeastSpanningForest(graph).getTotalWeight());
+        assertEquals(1, cache.getHitCount());
+
+        String routeKey = ResultCache.key(graph, "traveling-salesman", AntColonyTsp.PARAMETERS);
+        cache.putRows(routeKey, graph, new int[][]{{0, 1}, {1, 0}}, 3);
+        assertTrue(algorithms.solveTravelingSalesmanProblem(graph).getVertices().length > graph.getVertexCount());
+        assertEquals(1, cache.getHitCount());
+        assertEquals(2, cache.getMissCount());
+    }
+
+    @Test
+    void resultCache_shouldMissForChangedGraphAndKeepMissingResults() throws IOException {
+        GraphAlgorithmsImpl algorithms = new GraphAlgorithmsImpl();
+        ResultCache cache = new ResultCache(tempDir.resolve("cache").toString(), 1 << 20);
+        algorithms.setResultCache(cache);
+        graph.loadGraphFromFile(getResourcePath("graph_6_weighted_undirected_disconnected.txt"));
+        assertNull(algorithms.getLeastSpanningTree(graph));
+        assertNull(algorithms.getLeastSpanningTree(graph));
+        assertEquals(1, cache.getHitCount());
+        assertEquals(2, algorithms.getLeastSpanningForest(graph).getComponentCount());
+        assertEquals(11, algorithms.getLeastSpanningForest(graph).getTotalWeight());
+        assertEquals(3, cache.getHitCount());
+
+        graph.loadGraphFromFile(getResourcePath("graph_5_weighted_undirected.txt"));
+        assertNotNull(algorithms.getLeastSpanningTree(graph));
+        assertEquals(2, cache.getMissCount());
+        assertEquals(2, cache.getEntryCount());
+    }
+
+    @Test
+    void resultCache_concurrentMissesOnOneKey_shouldNotShareFiles() throws Exception {
+        Path matrixFile = createTempFile(randomMatrix(150, 4, 40, 31));
+        String directory = tempDir.resolve("cache").toString();
+        graph.loadGraphFromFile(matrixFile.toString());
+        int[][] expected = graphAlgorithms.getDistanceMatrix(graph).toArray();
+        long expectedWeight = graphAlgorithms.getLeastSpanningForest(graph).getTotalWeight();
+
+        // Separate instances, as in separate runs, so no lock is shared between the writers
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            List<int[][]> results = pool.submit(() -> IntStream.range(0, 8).parallel().mapToObj(i -> {
+                try {
+                    Graph loaded = new Graph();
+                    loaded.loadGraphFromFile(matrixFile.toString());
+                    GraphAlgorithmsImpl algorithms = new GraphAlgorithmsImpl();
+                    algorithms.setResultCache(new ResultCache(directory, 1 << 24));
+                    assertEquals(expectedWeight, algorithms.getLeastSpanningForest(loaded).getTotalWeight());
+                    return algorithms.getDistanceMatrix(loaded).toArray();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }).toList()).get();
+            for (int[][] result : results) {
+                assertArrayEquals(expected, result);
+            }
+        } finally {
+            pool.shutdown();
+        }
+        assertEquals(0, partFileCount(Path.of(directory)));
+        assertEquals(2, new ResultCache(directory, 1 << 24).getEntryCount());
+    }
+
+    @Test
+    void resultCache_overSizeBound_shouldEvictLeastRecentlyUsed() throws IOException {
+        Graph small = new Graph();
+        small.loadGraphFromFile(getResourcePath("graph_5_weighted_undirected.txt"));
+        graph.loadGraphFromFile(getResourcePath("graph_6_weighted_undirected_disconnected.txt"));
+        Graph large = new Graph();
+        large.loadGraphFromFile(createTempFile(randomMatrix(60, 3, 20, 5)).toString());
+        GraphAlgorithmsImpl algorithms = new GraphAlgorithmsImpl();
+        // Two of the small matrices fit, the one of 60 vertices only with one of them
+        ResultCache cache = new ResultCache(tempDir.resolve("cache").toString(), 3700);
+        algorithms.setResultCache(cache);
+
+        algorithms.getDistanceMatrix(small);
+        algorithms.getDistanceMatrix(graph);
+        algorithms.getDistanceMatrix(small);
+        algorithms.getDistanceMatrix(large);
+        assertEquals(2, cache.getEntryCount());
+        assertTrue(cache.getSizeBytes() <= cache.getMaxBytes());
+
+        algorithms.getDistanceMatrix(small);
+        assertEquals(2, cache.getHitCount());
+        assertEquals(DistanceMatrix.UNREACHABLE, algorithms.getDistanceMatrix(graph).get(0, 5));
+        assertEquals(4, cache.getMissCount());
+    }
+
+    @Test
+    void distanceTreeCache_shouldAnswerRepeatedSourcesFromCachedTrees() throws IOException {
+        graph.loadGraphFromFile(createTempFile(randomMatrix(120, 3, 30, 19)).toString());
+        GraphAlgorithmsImpl cached = new GraphAlgorithmsImpl();
+        DistanceTreeCache cache = new DistanceTreeCache(4);
+        cached.setDistanceTreeCache(cache);
+
+        for (int source = 0; source < 4; source++) {
+            for (int target = 0; target < 120; target++) {
+                assertEquals(pathOrMinusOne(graph, source, target), pathOrMinusOne(cached, graph, source, target));
+            }
+        }
+        assertEquals(4, cache.getMissCount());
+        assertEquals(4 * 118, cache.getHitCount());
+        assertEquals(4, cache.getSize());
+
+        int target = 0;
+        while (pathOrMinusOne(graph, 1, target) <= 0) {
+            target++;
+        }
+        ShortestPath route = cached.getShortestRouteBetweenVertices(graph, 1, target);
+        assertEquals(graphAlgorithms.getShortestPathBetweenVertices(graph, 1, target), route.getDistance());
+        assertEquals(1, route.getVertices()[0]);
+        assertEquals(target, route.getVertices()[route.getVertices().length - 1]);
+    }
+
+    @Test
+    void distanceTreeCache_shouldEvictLeastRecentlyUsedAndForgetReloadedGraphs() throws IOException {
+        graph.loadGraphFromFile(getResourcePath("graph_5_weighted_undirected.txt"));
+        GraphAlgorithmsImpl algorithms = new GraphAlgorithmsImpl();
+        DistanceTreeCache cache = new DistanceTreeCache(2);
+        algorithms.setDistanceTreeCache(cache);
+
+        algorithms.getDistanceTree(graph, 0);
+        algorithms.getDistanceTree(graph, 1);
+        algorithms.getDistanceTree(graph, 0);
+        algorithms.getDistanceTree(graph, 2);
+        algorithms.getDistanceTree(graph, 0);
+        assertEquals(2, cache.getHitCount());
+        algorithms.getDistanceTree(graph, 1);
+        assertEquals(4, cache.getMissCount());
+
+        graph.loadGraphFromFile(getResourcePath("graph_6_weighted_undirected_disconnected.txt"));
+        assertEquals(DistanceTree.UNREACHABLE, algorithms.getDistanceTree(graph, 0).distance(5));
+        assertThrows(IllegalArgumentException.class, () -> algorithms.getShortestPathBetweenVertices(graph, 0, 5));
+        assertEquals(5, cache.getMissCount());
+
+        cache.setCapacity(1);
+        assertEquals(1, cache.getSize());
+        assertThrows(IllegalArgumentException.class, () -> cache.setCapacity(0));
+        assertThrows(IllegalArgumentException.class, () -> algorithms.getDistanceTree(graph, 6));
+    }
+
+    @Test
+    void distanceTreeCache_concurrentQueries_shouldMatchSingleThreadedResults() throws IOException {
+        graph.loadGraphFromFile(createTempFile(randomMatrix(200, 3, 40, 23)).toString());
+        GraphAlgorithmsImpl algorithms = new GraphAlgorithmsImpl();
+        algorithms.setDistanceTreeCache(new DistanceTreeCache(8));
+        int[] expected = new int[200 * 16];
+        for (int i = 0; i < expected.length; i++) {
+            expected[i] = pathOrMinusOne(graph, i % 16, i / 16);
+        }
+
+        int[] actual = new int[expected.length];
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            pool.submit(() -> IntStream.range(0, actual.length).parallel()
+                    .forEach(i -> actual[i] = pathOrMinusOne(algorithms, graph, i % 16, i / 16))).join();
+        } finally {
+            pool.shutdown();
+        }
+        assertArrayEquals(expected, actual);
+    }
+
+    @Test
+    void deltaStepping_withAnyDelta_shouldMatchDijkstraDistances() throws IOException {
+        graph.loadGraphFromFile(createTempFile(randomMatrix(300, 4, 60, 29)).toString());
+        GraphAlgorithmsImpl dijkstra = new GraphAlgorithmsImpl();
+        dijkstra.setSingleSourceStrategy(SingleSourceStrategy.DIJKSTRA);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            for (int source : new int[]{0, 17, 299}) {
+                DistanceTree expected = dijkstra.getDistanceTree(graph, source);
+                for (int delta : new int[]{1, 7, DeltaSteppingSearch.defaultDelta(graph), 1000}) {
+                    DistanceTree actual = DeltaSteppingSearch.tree(graph, source, delta, pool);
+                    for (int target = 0; target < 300; target++) {
+                        assertEquals(expected.distance(target), actual.distance(target));
+                        if (actual.distance(target) != DistanceTree.UNREACHABLE) {
+                            assertEquals(actual.distance(target), routeWeight(actual.route(target)));
+                        }
+                    }
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /* With delta 1, a ring over every bucket up to the largest weight would take billions of buckets */
+    @Test
+    void deltaStepping_withHugeWeightAndUnitDelta_shouldMatchDijkstraDistances() throws IOException {
+        graph.loadGraphFromFile(createTempFile("""
+                4
+                0 1000000000 0 7
+                0 0 3 0
+                0 0 0 0
+                0 999999990 0 0
+                """).toString());
+        DistanceTree chain = DeltaSteppingSearch.tree(graph, 0, 1, ForkJoinPool.commonPool());
+        assertEquals(999999997, chain.distance(1));
+        assertEquals(1000000000, chain.distance(2));
+        assertArrayEquals(new int[]{0, 3, 1, 2}, chain.route(2));
+
+        Random random = new Random(41);
+        int size = 200;
+        StringBuilder content = new StringBuilder().append(size).append('\n');
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
+                int draw = random.nextInt(size);
+                int weight = draw < 3 ? 1 + random.nextInt(50) : draw < 5 ? 1 + random.nextInt(1_000_000_000) : 0;
+                content.append(weight).append(' ');
+            }
+            content.append('\n');
+        }
+        graph.loadGraphFromFile(createTempFile(content.toString()).toString());
+        GraphAlgorithmsImpl dijkstra = new GraphAlgorithmsImpl();
+        dijkstra.setSingleSourceStrategy(SingleSourceStrategy.DIJKSTRA);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            for (int source : new int[]{0, 99}) {
+                DistanceTree expected = dijkstra.getDistanceTree(graph, source);
+                for (int delta : new int[]{1, 64, DeltaSteppingSearch.defaultDelta(graph)}) {
+                    DistanceTree actual = DeltaSteppingSearch.tree(graph, source, delta, pool);
+                    for (int target = 0; target < size; target++) {
+                        assertEquals(expected.distance(target), actual.distance(target));
+                    }
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /* Weights up to 20 over at most 9 vertices keep the ring capped, so vertices pass through the overflow */
+    @Test
+    void deltaStepping_withCappedRingOnSmallGraphs_shouldMatchDijkstraDistances() throws IOException {
+        GraphAlgorithmsImpl dijkstra = new GraphAlgorithmsImpl();
+        dijkstra.setSingleSourceStrategy(SingleSourceStrategy.DIJKSTRA);
+        Random random = new Random(43);
+        ForkJoinPool pool = new ForkJoinPool(2);
+        try {
+            for (int round = 0; round < 400; round++) {
+                int size = 2 + random.nextInt(8);
+                StringBuilder content = new StringBuilder().append(size).append('\n');
+                for (int i = 0; i < size; i++) {
+                    for (int j = 0; j < size; j++) {
+                        content.append(i != j && random.nextInt(3) == 0 ? 1 + random.nextInt(20) : 0).append(' ');
+                    }
+                    content.append('\n');
+                }
+                graph.loadGraphFromFile(createTempFile(content.toString()).toString());
+                int source = random.nextInt(size);
+                DistanceTree expected = dijkstra.getDistanceTree(graph, source);
+                for (int delta = 1; delta <= 3; delta++) {
+                    DistanceTree actual = DeltaSteppingSearch.tree(graph, source, delta, pool);
+                    for (int target = 0; target < size; target++) {
+                        assertEquals(expected.distance(target), actual.distance(target), content + " delta " + delta);
+                    }
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void getDistanceTree_withDeltaStepping_shouldHandleDirectedAndDisconnectedGraphs() throws IOException {
+        GraphAlgorithmsImpl algorithms = new GraphAlgorithmsImpl();
+        algorithms.setSingleSourceStrategy(SingleSourceStrategy.DELTA_STEPPING);
+        algorithms.setDeltaSteppingDelta(3);
+        assertThrows(IllegalArgumentException.class, () -> algorithms.setDeltaSteppingDelta(-1));
+        for (String resource : new String[]{"graph_3_weighted_directed.txt", "graph_15_weighted_directed_complete.txt",
+                "graph_6_weighted_undirected_disconnected.txt", "graph_2_selfLoop.txt"}) {
+            graph.loadGraphFromFile(getResourcePath(resource));
+            for (int source = 0; source < graph.getVertexCount(); source++) {
+                DistanceTree tree = algorithms.getDistanceTree(graph, source);
+                for (int target = 0; target < graph.getVertexCount(); target++) {
+                    int expected = source == target ? 0 : pathOrMinusOne(graph, source, target);
+                    assertEquals(expected < 0 ? DistanceTree.UNREACHABLE : expected, tree.distance(target));
+                }
+            }
+        }
+    }
+
+    @Test
+    void floydWarshallKernels_shouldMatchScalarKernel() throws IOException {
+        assertTrue(FloydWarshall.selfCheck(new VectorRelaxKernel()));
+        assertTrue(FloydWarshall.selfCheck(FloydWarshall.defaultKernel()));
+
+        graph.loadGraphFromFile(createTempFile(randomMatrix(131, 4, 50, 61)).toString());
+        int[] scalar = FloydWarshall.seed(graph);
+        int[] vector = scalar.clone();
+        FloydWarshall.run(scalar, 131, ForkJoinPool.commonPool(), ScalarRelaxKernel.INSTANCE);
+        FloydWarshall.run(vector, 131, ForkJoinPool.commonPool(), new VectorRelaxKernel());
+        assertArrayEquals(scalar, vector);
+    }
+
     @Test
     void getShortestPathsBetweenAllVertices_withSingleVertex_shouldReturnZeroMatrix() throws IOException {
         String fileContent = """
@@ -422,10 +903,403 @@ class GraphAlgorithmsImplTest {
         assertEquals(0, distances[1][1]);
     }
 
+    @Test
+    void traversalEngine_whenReused_shouldMatchFreshTraversals() throws FileNotFoundException {
+        graph.loadGraphFromFile(getResourcePath("graph_10_notSolvableByTSP.txt"));
+        TraversalEngine engine = new TraversalEngine(graph);
+
+        for (int round = 0; round < 3; round++) {
+            for (int vertex = 0; vertex < graph.getVertexCount(); vertex++) {
+                int count = engine.depthFirstSearch(vertex);
+                assertIterableEquals(graphAlgorithms.depthFirstSearch(graph, vertex),
+                        Arrays.stream(engine.getOrder(), 0, count).boxed().toList());
+                count = engine.breadthFirstSearch(vertex);
+                assertIterableEquals(graphAlgorithms.breadthFirstSearch(graph, vertex),
+                        Arrays.stream(engine.getOrder(), 0, count).boxed().toList());
+            }
+        }
+        engine.breadthFirstSearch(4);
+        assertTrue(engine.isVisited(4));
+        engine.breadthFirstSearch(0);
+        assertFalse(engine.isVisited(4));
+    }
+
+    @Test
+    void parallelBreadthFirstSearch_withResourceGraphs_shouldMatchSequentialLevels() throws FileNotFoundException {
+        for (String resource : List.of("graph_1.txt", "graph_6_weighted_undirected_disconnected.txt",
+                "graph_10_unweighted_directed.txt", "graph_10_notSolvableByTSP.txt")) {
+            graph.loadGraphFromFile(getResourcePath(resource));
+            for (int vertex = 0; vertex < graph.getVertexCount(); vertex++) {
+                assertArrayEquals(hopLevels(graph, vertex), graphAlgorithms.parallelBreadthFirstSearch(graph, vertex));
+            }
+        }
+    }
+
+    @Test
+    void parallelBreadthFirstSearch_withLargeDirectedGraph_shouldMatchSequentialLevels() throws IOException {
+        int size = 3000;
+        graph.loadGraphFromFile(createTempFile(randomMatrix(size, 4, 1, 7)).toString());
+
+        assertTrue(graph.isDirected());
+        for (int vertex : new int[]{0, 1, size / 2, size - 1}) {
+            assertArrayEquals(hopLevels(graph, vertex), graphAlgorithms.parallelBreadthFirstSearch(graph, vertex));
+        }
+    }
+
+    @Test
+    void parallelBreadthFirstSearch_withInvalidVertex_shouldThrowException() throws FileNotFoundException {
+        graph.loadGraphFromFile(getResourcePath("graph_1.txt"));
+        assertThrows(IllegalArgumentException.class, () -> graphAlgorithms.parallelBreadthFirstSearch(graph, 1));
+    }
+
+    @Test
+    void getShortestPathBetweenVertices_withHeapMode_shouldMatchDenseScan() throws IOException {
+        GraphAlgorithmsImpl heap = new GraphAlgorithmsImpl();
+        heap.setShortestPathMode(ShortestPathMode.HEAP);
+        GraphAlgorithmsImpl dense = new GraphAlgorithmsImpl();
+        dense.setShortestPathMode(ShortestPathMode.DENSE_SCAN);
+        graph.loadGraphFromFile(createTempFile(randomMatrix(120, 3, 50, 11)).toString());
+
+        for (int from = 0; from < graph.getVertexCount(); from += 7) {
+            for (int to = 0; to < graph.getVertexCount(); to++) {
+                assertEquals(pathOrMinusOne(dense, from, to), pathOrMinusOne(heap, from, to));
+            }
+        }
+    }
+
+    @Test
+    void getShortestPathBetweenVertices_withHeapModeAndNoPath_shouldThrowException() throws FileNotFoundException {
+        GraphAlgorithmsImpl heap = new GraphAlgorithmsImpl();
+        heap.setShortestPathMode(ShortestPathMode.HEAP);
+        graph.loadGraphFromFile(getResourcePath("graph_6_weighted_undirected_disconnected.txt"));
+
+        assertThrows(IllegalArgumentException.class, () -> heap.getShortestPathBetweenVertices(graph, 0, 5));
+        assertEquals(graphAlgorithms.getShortestPathBetweenVertices(graph, 0, 3),
+                heap.getShortestPathBetweenVertices(graph, 0, 3));
+    }
+
+    @Test
+    void getShortestPathBetweenVertices_withDialMode_shouldMatchHeap() throws IOException {
+        GraphAlgorithmsImpl dial = new GraphAlgorithmsImpl();
+        dial.setShortestPathMode(ShortestPathMode.DIAL);
+        GraphAlgorithmsImpl heap = new GraphAlgorithmsImpl();
+        heap.setShortestPathMode(ShortestPathMode.HEAP);
+        // The wide weight range makes the bucket ring wrap around many times
+        for (int maxWeight : new int[]{5, 255, 5000}) {
+            graph.loadGraphFromFile(createTempFile(randomMatrix(130, 3, maxWeight, maxWeight)).toString());
+            for (int from = 0; from < graph.getVertexCount(); from += 9) {
+                for (int to = 0; to < graph.getVertexCount(); to++) {
+                    assertEquals(pathOrMinusOne(heap, from, to), pathOrMinusOne(dial, from, to));
+                }
+            }
+        }
+        graph.loadGraphFromFile(getResourcePath("graph_6_weighted_undirected_disconnected.txt"));
+        assertThrows(IllegalArgumentException.class, () -> dial.getShortestPathBetweenVertices(graph, 0, 5));
+    }
+
+    @Test
+    void dialSearch_withHugeWeights_shouldFallBackToHeap() throws IOException {
+        int big = Integer.MAX_VALUE / 4;
+        graph.loadGraphFromFile(createTempFile("4\n0 " + big + " 0 1\n" + big + " 0 3 0\n0 3 0 " + big
+                + "\n1 0 " + big + " 0\n").toString());
+        GraphAlgorithmsImpl dial = new GraphAlgorithmsImpl();
+        dial.setShortestPathMode(ShortestPathMode.DIAL);
+        dial.setSingleSourceStrategy(SingleSourceStrategy.DIAL);
+
+        assertEquals(big + 1, dial.getShortestPathBetweenVertices(graph, 0, 2));
+        assertEquals(big + 1, dial.getDistanceTree(graph, 1).distance(3));
+        assertThrows(IllegalArgumentException.class, () -> new BucketQueue(1).reset(BucketQueue.MAX_SPAN + 1));
+    }
+
+    @Test
+    void getDistanceTree_withDialStrategy_shouldMatchDijkstra() throws IOException {
+        GraphAlgorithmsImpl dial = new GraphAlgorithmsImpl();
+        dial.setSingleSourceStrategy(SingleSourceStrategy.DIAL);
+        GraphAlgorithmsImpl dijkstra = new GraphAlgorithmsImpl();
+        dijkstra.setSingleSourceStrategy(SingleSourceStrategy.DIJKSTRA);
+        graph.loadGraphFromFile(createTempFile(randomMatrix(200, 3, 200, 41)).toString());
+
+        for (int source = 0; source < graph.getVertexCount(); source += 25) {
+            DistanceTree expected = dijkstra.getDistanceTree(graph, source);
+            DistanceTree actual = dial.getDistanceTree(graph, source);
+            for (int target = 0; target < graph.getVertexCount(); target++) {
+                assertEquals(expected.distance(target), actual.distance(target));
+            }
+        }
+    }
+
+    @Test
+    void bucketQueue_shouldPollInKeyOrderAfterDecreasesAndReset() {
+        BucketQueue queue = new BucketQueue(6);
+        queue.reset(10);
+        queue.insertOrDecrease(0, 7);
+        queue.insertOrDecrease(1, 3);
+        queue.insertOrDecrease(2, 12);
+        queue.insertOrDecrease(2, 5);
+        queue.insertOrDecrease(1, 9);
+        assertEquals(3, queue.minKey());
+        assertEquals(1, queue.pollMin());
+        queue.insertOrDecrease(3, 13);
+        queue.insertOrDecrease(4, 8);
+        assertEquals(2, queue.pollMin());
+        assertEquals(0, queue.pollMin());
+        assertEquals(4, queue.pollMin());
+        assertEquals(13, queue.minKey());
+
+        queue.reset(2);
+        assertTrue(queue.isEmpty());
+        queue.insertOrDecrease(3, 1);
+        assertEquals(1, queue.minKey());
+        assertEquals(3, queue.pollMin());
+        assertThrows(NoSuchElementException.class, queue::pollMin);
+    }
+
+    @Test
+    void getShortestPathBetweenVertices_withBidirectionalMode_shouldMatchHeap() throws IOException {
+        GraphAlgorithmsImpl bidirectional = new GraphAlgorithmsImpl();
+        bidirectional.setShortestPathMode(ShortestPathMode.BIDIRECTIONAL);
+        GraphAlgorithmsImpl heap = new GraphAlgorithmsImpl();
+        heap.setShortestPathMode(ShortestPathMode.HEAP);
+        graph.loadGraphFromFile(createTempFile(randomMatrix(150, 2, 40, 17)).toString());
+
+        for (int from = 0; from < graph.getVertexCount(); from += 5) {
+            for (int to = 0; to < graph.getVertexCount(); to++) {
+                assertEquals(pathOrMinusOne(heap, from, to), pathOrMinusOne(bidirectional, from, to));
+            }
+        }
+    }
+
+    @Test
+    void getShortestPathBetweenVertices_withLandmarksMode_shouldMatchHeap() throws IOException {
+        GraphAlgorithmsImpl landmarks = new GraphAlgorithmsImpl();
+        landmarks.setShortestPathMode(ShortestPathMode.LANDMARKS);
+        GraphAlgorithmsImpl heap = new GraphAlgorithmsImpl();
+        heap.setShortestPathMode(ShortestPathMode.HEAP);
+        for (String content : List.of(randomMatrix(150, 2, 40, 23), randomMatrix(60, 20, 9, 29))) {
+            graph.loadGraphFromFile(createTempFile(content).toString());
+            for (int from = 0; from < graph.getVertexCount(); from += 5) {
+                for (int to = 0; to < graph.getVertexCount(); to++) {
+                    assertEquals(pathOrMinusOne(heap, from, to), pathOrMinusOne(landmarks, from, to));
+                }
+            }
+        }
+        graph.loadGraphFromFile(getResourcePath("graph_6_weighted_undirected_disconnected.txt"));
+        for (int from = 0; from < graph.getVertexCount(); from++) {
+            for (int to = 0; to < graph.getVertexCount(); to++) {
+                assertEquals(pathOrMinusOne(heap, from, to), pathOrMinusOne(landmarks, from, to));
+            }
+        }
+    }
+
+    @Test
+    void landmarkTable_shouldRoundTripThroughFileForSameGraphOnly() throws IOException {
+        graph.loadGraphFromFile(createTempFile(randomMatrix(100, 3, 30, 31)).toString());
+        LandmarkTable table = LandmarkTable.build(graph, 4);
+        Path file = tempDir.resolve("graph.landmarks");
+        table.save(file.toString());
+
+        Graph copy = new Graph();
+        copy.loadGraphFromFile(createTempFile(randomMatrix(100, 3, 30, 31)).toString());
+        LandmarkTable loaded = LandmarkTable.load(copy, file.toString());
+        assertArrayEquals(table.getLandmarks(), loaded.getLandmarks());
+        assertTrue(loaded.isFor(copy));
+        assertFalse(loaded.isFor(graph));
+
+        GraphAlgorithmsImpl algorithms = new GraphAlgorithmsImpl();
+        algorithms.setShortestPathMode(ShortestPathMode.LANDMARKS);
+        algorithms.setLandmarkTable(loaded);
+        for (int to = 0; to < copy.getVertexCount(); to++) {
+            assertEquals(pathOrMinusOne(copy, 0, to), pathOrMinusOne(algorithms, copy, 0, to));
+        }
+        assertSame(loaded, algorithms.getLandmarkTable());
+
+        copy.loadGraphFromFile(createTempFile(randomMatrix(100, 3, 30, 37)).toString());
+        assertFalse(loaded.isFor(copy));
+        assertThrows(IllegalArgumentException.class, () -> LandmarkTable.load(copy, file.toString()));
+    }
+
+    @Test
+    void getShortestPathBetweenVertices_withContractionMode_shouldMatchHeap() throws IOException {
+        GraphAlgorithmsImpl contraction = new GraphAlgorithmsImpl();
+        contraction.setShortestPathMode(ShortestPathMode.CONTRACTION);
+        GraphAlgorithmsImpl heap = new GraphAlgorithmsImpl();
+        heap.setShortestPathMode(ShortestPathMode.HEAP);
+        for (String content : List.of(randomMatrix(200, 2, 40, 41), randomMatrix(60, 20, 9, 43))) {
+            graph.loadGraphFromFile(createTempFile(content).toString());
+            for (int from = 0; from < graph.getVertexCount(); from += 3) {
+                for (int to = 0; to < graph.getVertexCount(); to++) {
+                    assertEquals(pathOrMinusOne(heap, from, to), pathOrMinusOne(contraction, from, to));
+                }
+            }
+        }
+        for (String file : List.of("graph_5_weighted_undirected.txt", "graph_6_weighted_undirected_disconnected.txt",
+                "graph_15_weighted_directed_complete.txt")) {
+            graph.loadGraphFromFile(getResourcePath(file));
+            for (int from = 0; from < graph.getVertexCount(); from++) {
+                for (int to = 0; to < graph.getVertexCount(); to++) {
+                    assertEquals(pathOrMinusOne(heap, from, to), pathOrMinusOne(contraction, from, to));
+                }
+            }
+        }
+    }
+
+    @Test
+    void contractionHierarchy_shouldRoundTripThroughFileForSameGraphOnly() throws IOException {
+        graph.loadGraphFromFile(createTempFile(randomMatrix(120, 3, 30, 47)).toString());
+        ContractionHierarchy hierarchy = ContractionHierarchy.build(graph);
+        Path file = tempDir.resolve("graph.ch");
+        hierarchy.save(file.toString());
+
+        Graph copy = new Graph();
+        copy.loadGraphFromFile(createTempFile(randomMatrix(120, 3, 30, 47)).toString());
+        ContractionHierarchy loaded = ContractionHierarchy.load(copy, file.toString());
+        assertEquals(hierarchy.getShortcutCount(), loaded.getShortcutCount());
+        assertTrue(loaded.isFor(copy));
+
+        GraphAlgorithmsImpl algorithms = new GraphAlgorithmsImpl();
+        algorithms.setShortestPathMode(ShortestPathMode.CONTRACTION);
+        algorithms.setContractionHierarchy(loaded);
+        for (int to = 0; to < copy.getVertexCount(); to++) {
+            assertEquals(pathOrMinusOne(copy, 0, to), pathOrMinusOne(algorithms, copy, 0, to));
+        }
+        assertSame(loaded, algorithms.getContractionHierarchy());
+
+        copy.loadGraphFromFile(createTempFile(randomMatrix(120, 3, 30, 53)).toString());
+        assertThrows(IllegalArgumentException.class, () -> ContractionHierarchy.load(copy, file.toString()));
+    }
+
+    @Test
+    void getShortestRouteBetweenVertices_shouldReturnRouteOfShortestLength() throws IOException {
+        graph.loadGraphFromFile(createTempFile(randomMatrix(80, 3, 30, 5)).toString());
+        for (ShortestPathMode mode : ShortestPathMode.values()) {
+            GraphAlgorithmsImpl algorithms = new GraphAlgorithmsImpl();
+            algorithms.setShortestPathMode(mode);
+            for (int to = 1; to < graph.getVertexCount(); to++) {
+                int expected = pathOrMinusOne(algorithms, 0, to);
+                if (expected < 0) {
+                    continue;
+                }
+                ShortestPath path = algorithms.getShortestRouteBetweenVertices(graph, 0, to);
+                int[] vertices = path.getVertices();
+                assertEquals(expected, path.getDistance());
+                assertEquals(0, vertices[0]);
+                assertEquals(to, vertices[vertices.length - 1]);
+                int length = 0;
+                for (int i = 1; i < vertices.length; i++) {
+                    assertTrue(graph.hasEdge(vertices[i - 1], vertices[i]));
+                    length += graph.getEdgeWeight(vertices[i - 1], vertices[i]);
+                }
+                assertEquals(expected, length);
+            }
+        }
+    }
+
+    @Test
+    void getShortestRouteBetweenVertices_withSameVertex_shouldReturnSingleVertex() throws FileNotFoundException {
+        graph.loadGraphFromFile(getResourcePath("graph_5_weighted_undirected.txt"));
+        ShortestPath path = graphAlgorithms.getShortestRouteBetweenVertices(graph, 2, 2);
+
+        assertArrayEquals(new int[]{2}, path.getVertices());
+        assertEquals(0, path.getDistance());
+    }
+
+    @Test
+    void getShortestRouteBetweenVertices_withNoPath_shouldThrowException() throws FileNotFoundException {
+        graph.loadGraphFromFile(getResourcePath("graph_6_weighted_undirected_disconnected.txt"));
+        assertThrows(IllegalArgumentException.class, () -> graphAlgorithms.getShortestRouteBetweenVertices(graph, 0, 5));
+        assertThrows(IllegalArgumentException.class, () -> graphAlgorithms.getShortestRouteBetweenVertices(graph, 0, 99));
+    }
+
+    @Test
+    void getShortestPathBetweenVertices_acrossGraphsAndReloads_shouldNotReuseStaleState() throws IOException {
+        Graph other = new Graph();
+        other.loadGraphFromFile(createTempFile(randomMatrix(150, 2, 20, 3)).toString());
+        graph.loadGraphFromFile(getResourcePath("graph_5_weighted_undirected.txt"));
+        int small = graphAlgorithms.getShortestPathBetweenVertices(graph, 0, 4);
+        int large = pathOrMinusOne(other, 0, 149);
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(small, graphAlgorithms.getShortestPathBetweenVertices(graph, 0, 4));
+            assertEquals(large, pathOrMinusOne(other, 0, 149));
+        }
+        graph.loadGraphFromFile(getResourcePath("graph_6_weighted_undirected_disconnected.txt"));
+        assertThrows(IllegalArgumentException.class, () -> graphAlgorithms.getShortestPathBetweenVertices(graph, 0, 5));
+    }
+
     // Helpers
+    private static long partFileCount(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.getFileName().toString().endsWith(".part")).count();
+        }
+    }
+
     private Path createTempFile(String content) throws IOException {
         Path file = tempDir.resolve("test_graph_" + System.nanoTime() + ".txt");
         Files.writeString(file, content);
         return file;
     }
+
+    private String randomMatrix(int size, int edgesPerVertex, int maxWeight, long seed) {
+        Random random = new Random(seed);
+        int[][] matrix = new int[size][size];
+        for (int i = 0; i < size; i++) {
+            for (int k = 0; k < edgesPerVertex; k++) {
+                matrix[i][random.nextInt(size)] = 1 + random.nextInt(maxWeight);
+            }
+        }
+        StringBuilder content = new StringBuilder().append(size).append('\n');
+        for (int[] row : matrix) {
+            for (int weight : row) {
+                content.append(weight).append(' ');
+            }
+            content.append('\n');
+        }
+        return content.toString();
+    }
+
+    private int pathOrMinusOne(Graph graph, int from, int to) {
+        try {
+            return graphAlgorithms.getShortestPathBetweenVertices(graph, from, to);
+        } catch (IllegalArgumentException e) {
+            return -1;
+        }
+    }
+
+    private int pathOrMinusOne(GraphAlgorithms algorithms, int from, int to) {
+        return pathOrMinusOne(algorithms, graph, from, to);
+    }
+
+    private int pathOrMinusOne(GraphAlgorithms algorithms, Graph graph, int from, int to) {
+        try {
+            return algorithms.getShortestPathBetweenVertices(graph, from, to);
+        } catch (IllegalArgumentException e) {
+            return -1;
+        }
+    }
+
+    private int routeWeight(int[] route) {
+        int weight = 0;
+        for (int i = 1; i < route.length; i++) {
+            assertTrue(graph.hasEdge(route[i - 1], route[i]));
+            weight += graph.getEdgeWeight(route[i - 1], route[i]);
+        }
+        return weight;
+    }
+
+    private int[] hopLevels(Graph graph, int startVertex) {
+        int[] levels = new int[graph.getVertexCount()];
+        Arrays.fill(levels, -1);
+        levels[startVertex] = 0;
+        ArrayDeque<Integer> queue = new ArrayDeque<>(List.of(startVertex));
+        while (!queue.isEmpty()) {
+            int vertex = queue.poll();
+            for (int child : graph.getAdjacentVertices(vertex)) {
+                if (levels[child] < 0) {
+                    levels[child] = levels[vertex] + 1;
+                    queue.add(child);
+                }
+            }
+        }
+        return levels;
+    }
 }
\ No newline at end of file
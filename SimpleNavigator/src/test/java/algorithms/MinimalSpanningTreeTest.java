@@ -1,20 +1,30 @@
 package algorithms;
 
 import data.Edge;
+import data.SpanningForest;
 import graph.Graph;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 import java.io.FileNotFoundException;
+import java.io.IOException;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
 import java.util.LinkedList;
 import java.util.Queue;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
 
 import static org.junit.jupiter.api.Assertions.*;
 
 public class MinimalSpanningTreeTest {
     private static final String FILE_FOLDER = "src/test/resources/";
+    @TempDir
+    Path tempDir;
     private final GraphAlgorithms algorithms = new GraphAlgorithmsImpl();
     private Graph graph;
 
@@ -110,6 +120,32 @@ public class MinimalSpanningTreeTest {
         assertNull(tree);
     }
 
+    @Test
+    void weightedUndirected_6_disconnected_shouldReturnForest() throws FileNotFoundException {
+        graph.loadGraphFromFile(FILE_FOLDER + "graph_6_weighted_undirected_disconnected.txt");
+        SpanningForest forest = algorithms.getLeastSpanningForest(graph);
+        assertEquals(6, forest.getVertexCount());
+        assertEquals(2, forest.getComponentCount());
+        assertEquals(4, forest.getEdgeCount());
+        assertEquals(11, forest.getTotalWeight());
+        assertFalse(forest.isTree());
+
+        int[][] matrix = forest.toAdjacencyMatrix();
+        assertEquals(4, matrix[4][5]);
+        assertEquals(4, matrix[5][4]);
+        assertEquals(0, matrix[0][4]);
+    }
+
+    @Test
+    void spanningForest_shouldConvertToTreeMatrix() throws FileNotFoundException {
+        graph.loadGraphFromFile(FILE_FOLDER + "graph_5_weighted_undirected.txt");
+        SpanningForest forest = algorithms.getLeastSpanningForest(graph);
+        assertTrue(forest.isTree());
+        assertArrayEquals(algorithms.getLeastSpanningTree(graph), forest.toAdjacencyMatrix());
+        assertThrows(IllegalArgumentException.class,
+                () -> new SpanningForest(3, new int[]{0}, new int[]{1}, new int[]{5}, 1));
+    }
+
     @Test
     void unweightedUndirected_100() throws Exception {
         int vertexNum = 100;
@@ -142,6 +178,122 @@ public class MinimalSpanningTreeTest {
         assertTrue((boolean) isSymmetricMethod.invoke(graph));
     }
 
+    @Test
+    void randomUndirected_shouldMatchPrimWeight() throws IOException {
+        Random random = new Random(7);
+        for (int size : new int[]{2, 17, 90}) {
+            int[][] matrix = new int[size][size];
+            for (int i = 1; i < size; i++) {
+                int parent = random.nextInt(i);
+                matrix[i][parent] = matrix[parent][i] = 1 + random.nextInt(100);
+                for (int j = 0; j < i; j++) {
+                    if (random.nextInt(4) == 0) {
+                        matrix[i][j] = matrix[j][i] = 1 + random.nextInt(100);
+                    }
+                }
+            }
+            graph.loadGraphFromFile(writeMatrix(matrix).toString());
+            int[][] tree = algorithms.getLeastSpanningTree(graph);
+            bfsTreeCheck(tree, primWeight(matrix));
+        }
+    }
+
+    /* No vertex reaches every other one along directed edges,
+       but the undirected view is connected */
+    @Test
+    void weaklyConnectedDirected_shouldSpanUndirectedView() throws IOException {
+        graph.loadGraphFromFile(writeMatrix(new int[][]{{0, 5, 0, 0}, {0, 0, 0, 0}, {0, 2, 0, 0}, {4, 0, 6, 0}}).toString());
+        int[][] tree = algorithms.getLeastSpanningTree(graph);
+        bfsTreeCheck(tree, 11);
+        assertEquals(5, tree[1][0]);
+
+        graph.loadGraphFromFile(writeMatrix(new int[][]{{0, 5}, {3, 0}}).toString());
+        assertArrayEquals(new int[][]{{0, 3}, {3, 0}}, algorithms.getLeastSpanningTree(graph));
+    }
+
+    @Test
+    void parallelBoruvka_shouldMatchKruskalWeight() throws IOException {
+        Random random = new Random(11);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            for (int size : new int[]{1, 2, 30, 300}) {
+                for (boolean directed : new boolean[]{false, true}) {
+                    int[][] matrix = new int[size][size];
+                    for (int i = 0; i < size; i++) {
+                        for (int j = directed ? 0 : i + 1; j < size; j++) {
+                            // Sparse enough to leave some vertices isolated, with ties and negative weights
+                            if (random.nextInt(size) < 2) {
+                                matrix[i][j] = random.nextInt(20) - 5;
+                                if (!directed) {
+                                    matrix[j][i] = matrix[i][j];
+                                }
+                            }
+                        }
+                    }
+                    graph.loadGraphFromFile(writeMatrix(matrix).toString());
+                    SpanningForest kruskal = KruskalSpanningForest.compute(graph);
+                    SpanningForest boruvka = ParallelBoruvkaSpanningForest.compute(graph, pool);
+                    assertEquals(kruskal.getComponentCount(), boruvka.getComponentCount());
+                    assertEquals(size - boruvka.getComponentCount(), boruvka.getEdgeCount());
+                    assertEquals(kruskal.getTotalWeight(), boruvka.getTotalWeight());
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void parallelBoruvkaStrategy_shouldMatchPrimWeight() throws IOException {
+        GraphAlgorithmsImpl boruvka = new GraphAlgorithmsImpl();
+        boruvka.setSpanningTreeStrategy(SpanningTreeStrategy.PARALLEL_BORUVKA);
+        int[][] matrix = {{0, 4, 0, 9}, {4, 0, 2, 7}, {0, 2, 0, 3}, {9, 7, 3, 0}};
+        graph.loadGraphFromFile(writeMatrix(matrix).toString());
+        bfsTreeCheck(boruvka.getLeastSpanningTree(graph), primWeight(matrix));
+
+        graph.loadGraphFromFile(FILE_FOLDER + "graph_6_weighted_undirected_disconnected.txt");
+        assertNull(boruvka.getLeastSpanningTree(graph));
+        assertThrows(IllegalArgumentException.class, () -> boruvka.setSpanningTreeStrategy(null));
+    }
+
+    private Path writeMatrix(int[][] matrix) throws IOException {
+        StringBuilder content = new StringBuilder().append(matrix.length).append('\n');
+        for (int[] row : matrix) {
+            for (int weight : row) {
+                content.append(weight).append(' ');
+            }
+            content.append('\n');
+        }
+        Path file = tempDir.resolve("mst_" + System.nanoTime() + ".txt");
+        Files.writeString(file, content);
+        return file;
+    }
+
+    /* Reference O(V^2) Prim over a symmetric connected matrix */
+    private int primWeight(int[][] matrix) {
+        int[] distances = new int[matrix.length];
+        boolean[] inTree = new boolean[matrix.length];
+        Arrays.fill(distances, Integer.MAX_VALUE);
+        distances[0] = 0;
+        int weight = 0;
+        for (int step = 0; step < matrix.length; step++) {
+            int next = -1;
+            for (int v = 0; v < matrix.length; v++) {
+                if (!inTree[v] && (next < 0 || distances[v] < distances[next])) {
+                    next = v;
+                }
+            }
+            inTree[next] = true;
+            weight += distances[next];
+            for (int v = 0; v < matrix.length; v++) {
+                if (matrix[next][v] != 0 && matrix[next][v] < distances[v]) {
+                    distances[v] = matrix[next][v];
+                }
+            }
+        }
+        return weight;
+    }
+
     /* Check if there is no cycles
        And count weight of all edges */
     private void bfsTreeCheck(int[][] tree, int expectedWeight) {
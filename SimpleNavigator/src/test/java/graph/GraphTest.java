@@ -8,9 +8,15 @@ import org.junit.jupiter.params.provider.ValueSource;
 
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Random;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -541,6 +547,339 @@ class GraphTest {
         assertTrue(result.contains("Graph size: 0"));
     }
 
+    @Test
+    void loadGraphFromFile_withSparseGraph_shouldUseCompressedStorage() throws IOException {
+        String fileContent = """
+                6
+                0 4 0 0 0 0
+                4 0 0 0 0 0
+                0 0 0 7 0 0
+                0 0 0 0 0 0
+                0 0 0 0 0 2
+                0 0 0 0 0 0
+                """;
+        Path testFile = createTempFile(fileContent);
+
+        graph.loadGraphFromFile(testFile.toString());
+
+        assertTrue(graph.isCompressed());
+        assertTrue(graph.isDirected());
+        assertEquals(4, graph.getEdgeCount());
+        assertEquals(2, graph.getMinEdgeWeight());
+        assertEquals(4, graph.getEdgeWeight(1, 0));
+        assertEquals(7, graph.getEdgeWeight(2, 3));
+        assertEquals(0, graph.getEdgeWeight(3, 2));
+        assertFalse(graph.hasEdge(5, 4));
+        assertEquals(List.of(5), graph.getAdjacentVertices(4));
+        assertTrue(graph.getAdjacentVertices(3).isEmpty());
+        assertTrue(graph.toString().contains("0 0 0 7 0 0"));
+    }
+
+    @Test
+    void loadGraphFromFile_withSparseSymmetricGraph_shouldBeUndirected() throws IOException {
+        String fileContent = """
+                5
+                0 3 0 0 0
+                3 0 0 0 0
+                0 0 1 0 0
+                0 0 0 0 6
+                0 0 0 6 0
+                """;
+        Path testFile = createTempFile(fileContent);
+        graph.loadGraphFromFile(testFile.toString());
+        Path outputFile = tempDir.resolve("sparse.dot");
+
+        graph.exportGraphToDot(outputFile.toString());
+
+        assertTrue(graph.isCompressed());
+        assertFalse(graph.isDirected());
+        String output = Files.readString(outputFile);
+        assertTrue(output.contains("0 -- 1 [label=\"3\"];"));
+        assertTrue(output.contains("2 -- 2 [label=\"1\"];"));
+        assertTrue(output.contains("3 -- 4 [label=\"6\"];"));
+        assertFalse(output.contains("1 -- 0"));
+    }
+
+    @Test
+    void loadGraphFromFile_withDenseGraph_shouldUseMatrixStorage() throws IOException {
+        String fileContent = """
+                3
+                0 1 2
+                1 0 3
+                2 3 0
+                """;
+        Path testFile = createTempFile(fileContent);
+
+        graph.loadGraphFromFile(testFile.toString());
+
+        assertFalse(graph.isCompressed());
+        assertEquals(6, graph.getEdgeCount());
+    }
+
+    @Test
+    void loadGraphFromBinaryFile_afterConversion_shouldMatchTextGraph() throws IOException {
+        String fileContent = """
+                4
+                0 2 0 0
+                0 0 3 0
+                0 0 0 4
+                9 0 0 0
+                """;
+        Path textFile = createTempFile(fileContent);
+        Path binaryFile = tempDir.resolve("graph.bin");
+        graph.loadGraphFromFile(textFile.toString());
+
+        GraphFileConverter.convertTextToBinary(textFile.toString(), binaryFile.toString());
+        Graph mapped = new Graph();
+        mapped.loadGraphFromBinaryFile(binaryFile.toString());
+
+        assertEquals(graph.getVertexCount(), mapped.getVertexCount());
+        assertTrue(mapped.isDirected());
+        assertEquals(4, mapped.getEdgeCount());
+        assertEquals(2, mapped.getMinEdgeWeight());
+        assertEquals(graph.toString(), mapped.toString());
+        assertEquals(9, mapped.getEdgeWeight(3, 0));
+        assertFalse(mapped.hasEdge(0, 3));
+    }
+
+    @Test
+    void getMaxEdgeWeight_shouldSurviveBinaryFilesWithAndWithoutIt() throws IOException {
+        Path textFile = createTempFile("3\n0 4 0\n2 0 9\n0 7 0\n");
+        Path binaryFile = tempDir.resolve("weights.bin");
+        graph.loadGraphFromFile(textFile.toString());
+        assertEquals(2, graph.getMinEdgeWeight());
+        assertEquals(9, graph.getMaxEdgeWeight());
+
+        graph.exportGraphToBinary(binaryFile.toString());
+        Graph mapped = new Graph();
+        mapped.loadGraphFromBinaryFile(binaryFile.toString());
+        assertEquals(9, mapped.getMaxEdgeWeight());
+
+        // Files written before the maximal weight was stored hold zero in its place
+        try (FileChannel channel = FileChannel.open(binaryFile, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(Integer.BYTES), 20);
+        }
+        mapped.loadGraphFromBinaryFile(binaryFile.toString());
+        assertEquals(9, mapped.getMaxEdgeWeight());
+        assertEquals(2, mapped.getMinEdgeWeight());
+        assertEquals(4, mapped.getEdgeCount());
+    }
+
+    @Test
+    void exportGraphToBinary_withDenseUndirectedGraph_shouldRoundTrip() throws IOException {
+        String fileContent = """
+                3
+                0 1 2
+                1 0 3
+                2 3 0
+                """;
+        Path textFile = createTempFile(fileContent);
+        Path binaryFile = tempDir.resolve("dense.bin");
+        graph.loadGraphFromFile(textFile.toString());
+
+        graph.exportGraphToBinary(binaryFile.toString());
+        Graph mapped = new Graph();
+        mapped.loadGraphFromBinaryFile(binaryFile.toString());
+
+        assertFalse(mapped.isDirected());
+        assertEquals(graph.toString(), mapped.toString());
+        assertEquals(List.of(0, 1), mapped.getAdjacentVertices(2));
+    }
+
+    @Test
+    void getFingerprint_shouldDependOnContentsOnly() throws IOException {
+        Path textFile = createTempFile("3\n0 1 2\n1 0 3\n2 3 0\n");
+        Path binaryFile = tempDir.resolve("fingerprint.bin");
+        graph.loadGraphFromFile(textFile.toString());
+        graph.exportGraphToBinary(binaryFile.toString());
+        Graph mapped = new Graph();
+        mapped.loadGraphFromBinaryFile(binaryFile.toString());
+        long fingerprint = graph.getFingerprint();
+
+        assertEquals(fingerprint, mapped.getFingerprint());
+        graph.loadGraphFromFile(createTempFile("3\n0 1 2\n1 0 4\n2 4 0\n").toString());
+        assertNotEquals(fingerprint, graph.getFingerprint());
+    }
+
+    @Test
+    void getVersion_shouldGrowWithEveryLoad() throws IOException {
+        Path textFile = createTempFile("3\n0 1 2\n1 0 3\n2 3 0\n");
+        Path binaryFile = tempDir.resolve("version.bin");
+        int initial = graph.getVersion();
+        graph.loadGraphFromFile(textFile.toString());
+        int loaded = graph.getVersion();
+        graph.exportGraphToBinary(binaryFile.toString());
+        graph.loadGraphFromBinaryFile(binaryFile.toString());
+
+        assertTrue(loaded > initial);
+        assertTrue(graph.getVersion() > loaded);
+    }
+
+    @Test
+    void loadGraphFromBinaryFile_withTextFile_shouldThrowIllegalArgumentException() throws IOException {
+        Path textFile = createTempFile("1\n0\n" + " ".repeat(64));
+
+        assertThrows(IllegalArgumentException.class, () ->
+                graph.loadGraphFromBinaryFile(textFile.toString()));
+    }
+
+    @Test
+    void loadGraphFromBinaryFile_withCorruptRows_shouldThrowIllegalArgumentException() throws IOException {
+        graph.loadGraphFromFile(createTempFile("3\n0 4 0\n2 0 9\n0 7 0\n").toString());
+        Path binaryFile = tempDir.resolve("corrupt.bin");
+        graph.exportGraphToBinary(binaryFile.toString());
+        byte[] original = Files.readAllBytes(binaryFile);
+
+        // Row offsets start at byte 32 (0, 1, 3, 4), targets at byte 48 (1, 0, 2, 1), weights at byte 64
+        int[][] corruptions = {{32, 1}, {36, 5}, {44, 3}, {48, 3}, {52, -1}, {52, 2}, {56, 0}, {68, 0}};
+        for (int[] corruption : corruptions) {
+            ByteBuffer bytes = ByteBuffer.wrap(original.clone()).order(ByteOrder.LITTLE_ENDIAN);
+            bytes.putInt(corruption[0], corruption[1]);
+            Files.write(binaryFile, bytes.array());
+            Graph mapped = new Graph();
+            assertThrows(IllegalArgumentException.class, () -> mapped.loadGraphFromBinaryFile(binaryFile.toString()),
+                    "byte " + corruption[0]);
+        }
+
+        Files.write(binaryFile, original);
+        Graph mapped = new Graph();
+        mapped.loadGraphFromBinaryFile(binaryFile.toString());
+        assertEquals(graph.toString(), mapped.toString());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"graph_1.txt", "graph_2_selfLoop.txt", "graph_3_weighted_directed.txt",
+            "graph_5_weighted_undirected.txt", "graph_10_notSolvableByTSP.txt", "graph_15_weighted_directed_complete.txt"})
+    void loadGraphFromFileParallel_withResourceGraphs_shouldMatchSequentialLoader(String resource) throws IOException {
+        String filename = getClass().getClassLoader().getResource(resource).getPath();
+        graph.loadGraphFromFile(filename);
+        Graph parallel = new Graph();
+
+        parallel.loadGraphFromFileParallel(filename);
+
+        assertEquals(graph.isDirected(), parallel.isDirected());
+        assertEquals(graph.isCompressed(), parallel.isCompressed());
+        assertEquals(graph.toString(), parallel.toString());
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {0, 1})
+    void loadGraphFromFileParallel_withLargeGraph_shouldMatchSequentialLoader(int symmetric) throws IOException {
+        int size = 1200;
+        int[][] matrix = new int[size][size];
+        Random random = new Random(size + symmetric);
+        for (int i = 0; i < size; i++) {
+            for (int k = 0; k < 3; k++) {
+                int j = random.nextInt(size);
+                matrix[i][j] = 1 + random.nextInt(100);
+                if (symmetric == 1) {
+                    matrix[j][i] = matrix[i][j];
+                }
+            }
+        }
+        StringBuilder content = new StringBuilder().append(size).append("\r\n");
+        for (int[] row : matrix) {
+            for (int weight : row) {
+                content.append(weight).append(' ');
+            }
+            content.append("\r\n");
+        }
+        Path testFile = createTempFile(content.toString());
+        graph.loadGraphFromFile(testFile.toString());
+        Graph parallel = new Graph();
+
+        parallel.loadGraphFromFileParallel(testFile.toString());
+
+        assertEquals(symmetric == 0, parallel.isDirected());
+        assertEquals(graph.getEdgeCount(), parallel.getEdgeCount());
+        assertEquals(graph.toString(), parallel.toString());
+    }
+
+    @Test
+    void loadGraphFromFileParallel_withShortRow_shouldThrowIllegalArgumentException() throws IOException {
+        String fileContent = """
+                3
+                0 1 2
+                1 0
+                2 3 0
+                """;
+        Path testFile = createTempFile(fileContent);
+
+        assertThrows(IllegalArgumentException.class, () ->
+                graph.loadGraphFromFileParallel(testFile.toString()));
+    }
+
+    @Test
+    void loadGraphFromFileParallel_withNonexistentFile_shouldThrowFileNotFoundException() {
+        assertThrows(FileNotFoundException.class, () ->
+                graph.loadGraphFromFileParallel("nonexistent_file.txt"));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"graph_5_weighted_undirected.txt", "graph_10_unweighted_directed.txt"})
+    void neighborCursor_shouldYieldSameEdgesAsAdjacencyQueries(String resource) throws IOException {
+        graph.loadGraphFromFile(getClass().getClassLoader().getResource(resource).getPath());
+        NeighborCursor cursor = graph.newNeighborCursor();
+
+        for (int vertex = 0; vertex < graph.getVertexCount(); vertex++) {
+            List<Integer> visited = new ArrayList<>();
+            List<Integer> fromCursor = new ArrayList<>();
+            final int source = vertex;
+            graph.forEachEdge(vertex, (target, weight) -> {
+                assertEquals(graph.getEdgeWeight(source, target), weight);
+                visited.add(target);
+            });
+            cursor.reset(vertex);
+            while (cursor.next()) {
+                assertEquals(graph.getEdgeWeightUnchecked(source, cursor.target()), cursor.weight());
+                fromCursor.add(cursor.target());
+            }
+
+            assertEquals(graph.getAdjacentVertices(vertex), visited);
+            assertEquals(visited, fromCursor);
+        }
+    }
+
+    @Test
+    void forEachAdjacentVertex_withInvalidIndex_shouldThrowIllegalArgumentException() throws IOException {
+        Path testFile = createTempFile("1\n0\n");
+        graph.loadGraphFromFile(testFile.toString());
+
+        assertThrows(IllegalArgumentException.class, () ->
+                graph.forEachAdjacentVertex(1, vertex -> {}));
+        assertThrows(IllegalArgumentException.class, () ->
+                graph.newNeighborCursor().reset(-1));
+    }
+
+    @Test
+    void getTransposedGraph_withDirectedGraph_shouldReverseEdges() throws IOException {
+        String fileContent = """
+                3
+                0 4 0
+                0 0 5
+                6 0 0
+                """;
+        graph.loadGraphFromFile(createTempFile(fileContent).toString());
+
+        Graph transposed = graph.getTransposedGraph();
+
+        assertSame(transposed, graph.getTransposedGraph());
+        assertEquals(4, transposed.getEdgeWeight(1, 0));
+        assertEquals(5, transposed.getEdgeWeight(2, 1));
+        assertEquals(6, transposed.getEdgeWeight(0, 2));
+        assertFalse(transposed.hasEdge(0, 1));
+        assertEquals(1, graph.getOutDegree(0));
+        assertEquals(1, transposed.getOutDegree(0));
+    }
+
+    @Test
+    void getTransposedGraph_withUndirectedGraph_shouldReturnSameGraph() throws IOException {
+        Path testFile = createTempFile("2\n0 1\n1 0\n");
+        graph.loadGraphFromFile(testFile.toString());
+
+        assertSame(graph, graph.getTransposedGraph());
+    }
+
     // Helper
     private Path createTempFile(String content) throws IOException {
         Path file = tempDir.resolve("test_graph_" + System.nanoTime() + ".txt");